@@ -0,0 +1,47 @@
+package com.bkplatform.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token cost on every authenticated request: JwtAuthFilter parses the token twice (username, then validity)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("YourSuperSecretKeyThatIsAtLeast32CharactersLongForHS256Algorithm", 86_400_000L);
+        userDetails = new User("benchmark.user", "n/a", List.of());
+        token = jwtUtil.generateToken(userDetails.getUsername(), Map.of("role", "USER"));
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("benchmark.user", Map.of("role", "USER"));
+    }
+
+    @Benchmark
+    public String parse() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.isTokenValid(token, userDetails);
+    }
+}
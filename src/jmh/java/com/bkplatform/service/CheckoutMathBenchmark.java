@@ -0,0 +1,59 @@
+package com.bkplatform.service;
+
+import com.bkplatform.model.CartItem;
+import com.bkplatform.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU-only pieces of registration and checkout: the HUST email regex and the BigDecimal order total
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutMathBenchmark {
+
+    @Param({"5", "50"})
+    public int cartLines;
+
+    private AuthService authService;
+    private List<CartItem> items;
+
+    @Setup
+    public void setUp() {
+        // ✅ isHustEmail touches none of the collaborators
+        authService = new AuthService(null, null, null, null);
+
+        items = new ArrayList<>(cartLines);
+        for (int i = 0; i < cartLines; i++) {
+            Product product = Product.builder()
+                    .productId((long) i + 1)
+                    .price(new BigDecimal("129000.00").add(BigDecimal.valueOf(i * 500L)))
+                    .stockQuantity(100)
+                    .build();
+            items.add(CartItem.builder().product(product).quantity(1 + i % 4).build());
+        }
+    }
+
+    @Benchmark
+    public boolean hustEmailValid() {
+        return authService.isHustEmail("  nguyen.van.a20215123@hust.edu.vn ");
+    }
+
+    @Benchmark
+    public boolean hustEmailRejected() {
+        return authService.isHustEmail("nguyen.van.a20215123@gmail.com");
+    }
+
+    @Benchmark
+    public BigDecimal orderTotal() {
+        return OrderService.orderTotal(items);
+    }
+}
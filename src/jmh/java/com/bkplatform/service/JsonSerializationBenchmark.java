@@ -0,0 +1,87 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.ProductListItemResponse;
+import com.bkplatform.model.CartItem;
+import com.bkplatform.model.CartItemId;
+import com.bkplatform.model.Category;
+import com.bkplatform.model.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the application's Jackson settings (ISO dates, non_null)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductListItemResponse> productPage;
+    private List<CartItem> cartItems;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        Category category = new Category();
+        category.setCategoryId(3L);
+        category.setCategoryName("Sách - Giáo trình");
+
+        List<ProductListItemResponse> products = new ArrayList<>(size);
+        cartItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Product product = Product.builder()
+                    .productId((long) i + 1)
+                    .name("Giáo trình Giải tích " + i)
+                    .description("Sách cũ, còn mới 90%, có ghi chú bút chì ở chương " + (i % 12))
+                    .price(BigDecimal.valueOf(45_000L + i * 1_000L))
+                    .stockQuantity(i % 7)
+                    .createdDate(Instant.parse("2024-09-01T08:00:00Z").plusSeconds(i * 60L))
+                    .category(category)
+                    .reviewCount(i % 30)
+                    .averageRating(new BigDecimal("4.25"))
+                    .unitsSold(i * 3)
+                    .build();
+            // Listing shape: the product unwrapped plus its thumbnail (images only when asked for)
+            products.add(new ProductListItemResponse(product, "/api/images/" + (1000 + i) + "?w=320", null));
+            cartItems.add(CartItem.builder()
+                    .id(new CartItemId(1L, product.getProductId()))
+                    .product(product)
+                    .quantity(1 + i % 3)
+                    .build());
+        }
+        productPage = new PageImpl<>(products, PageRequest.of(0, size), 5_000);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws Exception {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] cartItems() throws Exception {
+        return objectMapper.writeValueAsBytes(cartItems);
+    }
+}
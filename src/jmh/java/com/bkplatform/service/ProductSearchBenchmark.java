@@ -0,0 +1,52 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.ProductSearchCriteria;
+import com.bkplatform.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-side cost of a search before it reaches the database: sort resolution and Specification assembly.
+ * Predicate translation needs a live Hibernate CriteriaBuilder and is covered by the load test instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    @Param({"newest", "price_asc", "bestseller", "unknown"})
+    public String sortBy;
+
+    private ProductSearchCriteria fullCriteria;
+
+    @Setup
+    public void setUp() {
+        fullCriteria = ProductSearchCriteria.builder()
+                .search("  Giáo trình Giải tích  ")
+                .categoryId(3L)
+                .minPrice(new BigDecimal("50000"))
+                .maxPrice(new BigDecimal("500000"))
+                .inStock(true)
+                .build();
+    }
+
+    @Benchmark
+    public Sort buildSort() {
+        return ProductService.buildSort(sortBy);
+    }
+
+    @Benchmark
+    public void buildSpecification(Blackhole bh) {
+        Specification<Product> spec = ProductService.buildSpecification(fullCriteria);
+        bh.consume(spec);
+        bh.consume(ProductService.buildSort(sortBy));
+    }
+}
@@ -0,0 +1,357 @@
+package com.bkplatform.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic marketplace data loaded with COPY ... FROM STDIN.
+ * Ids are assigned here (sequences are moved past them afterwards) so every foreign key is computed, not looked up.
+ * Price, shop and stock are pure functions of the product id, which is what the scenarios rely on.
+ */
+@Slf4j
+public class DataGenerator {
+
+    public static final String USERNAME_PREFIX = "lt_user_";
+    public static final String PASSWORD = "Loadtest123";
+
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int FLUSH_BYTES = 1 << 16;
+
+    private static final String[] ADJECTIVES = {
+            "Cũ", "Mới", "Giảm giá", "Chính hãng", "Like new", "Second-hand", "Bản đẹp", "Bản gốc"};
+    private static final String[] NOUNS = {
+            "Giáo trình Giải tích", "Giáo trình Đại số", "Vật lý đại cương", "Máy tính Casio", "Tai nghe",
+            "Bàn phím cơ", "Chuột không dây", "Balo laptop", "Arduino Uno", "Raspberry Pi", "Ổ cứng SSD",
+            "Đèn bàn", "Áo đồng phục", "Sách tiếng Anh", "Gia sư C++", "Sửa laptop"};
+
+    private final LoadTestConfig config;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    public DataGenerator(LoadTestConfig config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.seed());
+    }
+
+    /**
+     * Shop owners are users 1..shops and own shop n; buyers are the remaining users
+     */
+    public static long ownerOfShop(long shopId) {
+        return shopId;
+    }
+
+    public static long shopOfProduct(long productId, int shops) {
+        return 1 + (productId - 1) % shops;
+    }
+
+    public static BigDecimal priceOf(long productId) {
+        return BigDecimal.valueOf(10_000L + (productId * 7_919L) % 2_000_000L);
+    }
+
+    /**
+     * Every tenth product is sold out; the rest have enough stock for a long checkout run
+     */
+    public static int stockOf(long productId) {
+        return productId % 10 == 0 ? 0 : 100_000 + (int) (productId % 9_000);
+    }
+
+    /**
+     * Loads the dataset unless it is already there. Refuses to write into a database that has other users.
+     */
+    public void generateIfMissing(Connection connection) throws SQLException {
+        long existing = count(connection, "SELECT COUNT(*) FROM users");
+        if (existing > 0) {
+            long ours = count(connection, "SELECT COUNT(*) FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'");
+            if (ours != existing) {
+                throw new IllegalStateException("Target database already has " + existing
+                        + " users; point loadtest.jdbc-url at an empty database");
+            }
+            log.info("Dataset already present ({} users), skipping generation", existing);
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        List<Long> categoryIds = categoryIds(connection);
+        long started = System.nanoTime();
+
+        copyUsers(connection);
+        copyShops(connection);
+        copyProducts(connection, categoryIds);
+        copyCarts(connection);
+        copyOrders(connection);
+        copyConversations(connection);
+        connection.commit();
+
+        finish(connection);
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("ANALYZE");
+        }
+        log.info("Generated dataset in {} s", (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    private void copyUsers(Connection connection) throws SQLException {
+        // One hash for everybody: BCrypt per row would dominate the load time
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Copy copy = new Copy(connection, "users (user_id, username, full_name, email, password, role, created_date)")) {
+            for (long id = 1; id <= config.users(); id++) {
+                copy.row(id, USERNAME_PREFIX + id, "Load Test " + id, USERNAME_PREFIX + id + "@hust.edu.vn", hash,
+                        id <= config.shops() ? "SHOP_OWNER" : "USER", timestamp(now.minusDays(random.nextInt(720))));
+            }
+        }
+    }
+
+    private void copyShops(Connection connection) throws SQLException {
+        try (Copy copy = new Copy(connection, "shop (shop_id, owner_id, name)")) {
+            for (long id = 1; id <= config.shops(); id++) {
+                copy.row(id, ownerOfShop(id), "Shop " + id);
+            }
+        }
+    }
+
+    private void copyProducts(Connection connection, List<Long> categoryIds) throws SQLException {
+        try (Copy copy = new Copy(connection,
+                "products (product_id, shop_id, name, price, description, stock_quantity, created_date, category_id)")) {
+            for (long id = 1; id <= config.products(); id++) {
+                String name = NOUNS[random.nextInt(NOUNS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " #" + id;
+                copy.row(id, shopOfProduct(id, config.shops()), name, priceOf(id),
+                        "Mô tả sản phẩm " + id + ": " + name.toLowerCase(),
+                        stockOf(id),
+                        timestamp(now.minusMinutes(random.nextInt(365 * 24 * 60))),
+                        categoryIds.get(random.nextInt(categoryIds.size())));
+            }
+        }
+    }
+
+    private void copyCarts(Connection connection) throws SQLException {
+        try (Copy copy = new Copy(connection, "cart (cart_id, user_id)")) {
+            for (long id = 1; id <= config.users(); id++) {
+                copy.row(id, id);
+            }
+        }
+        try (Copy copy = new Copy(connection, "cart_items (cart_id, product_id, quantity)")) {
+            for (long userId = config.shops() + 1L; userId <= config.users(); userId++) {
+                if (random.nextInt(10) < 3) {
+                    for (long productId : distinctProducts(random, 1 + random.nextInt(3))) {
+                        copy.row(userId, productId, 1 + random.nextInt(3));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders and their lines are two COPY passes (one COPY at a time per connection);
+     * both passes derive an order from its own seeded random, so they agree without holding anything in memory.
+     */
+    private void copyOrders(Connection connection) throws SQLException {
+        int buyers = config.users() - config.shops();
+        try (Copy orders = new Copy(connection, "orders (order_id, user_id, order_date, order_cost, status, status_updated_at)")) {
+            for (long id = 1; id <= config.orders(); id++) {
+                SplittableRandom rowRandom = rowRandom(1, id);
+                BigDecimal cost = BigDecimal.ZERO;
+                for (long[] line : orderLines(rowRandom)) {
+                    cost = cost.add(priceOf(line[0]).multiply(BigDecimal.valueOf(line[1])));
+                }
+                long userId = config.shops() + 1L + rowRandom.nextInt(buyers);
+                LocalDateTime placed = now.minusMinutes(rowRandom.nextInt(180 * 24 * 60));
+                String status = rowRandom.nextInt(20) == 0 ? "CANCELLED" : "DELIVERED";
+                orders.row(id, userId, timestamp(placed), cost, status, timestamp(placed.plusDays(3)));
+            }
+        }
+        try (Copy items = new Copy(connection, "order_items (order_id, product_id, shop_id, quantity, price_snapshot)")) {
+            for (long id = 1; id <= config.orders(); id++) {
+                for (long[] line : orderLines(rowRandom(1, id))) {
+                    items.row(id, line[0], shopOfProduct(line[0], config.shops()), line[1], priceOf(line[0]));
+                }
+            }
+        }
+    }
+
+    private List<long[]> orderLines(SplittableRandom rowRandom) {
+        List<long[]> lines = new ArrayList<>(3);
+        for (long productId : distinctProducts(rowRandom, 1 + rowRandom.nextInt(3))) {
+            lines.add(new long[]{productId, 1 + rowRandom.nextInt(3)});
+        }
+        return lines;
+    }
+
+    /**
+     * Buyer n talks to shop owners in turn, so (user1, user2) pairs never repeat
+     */
+    private void copyConversations(Connection connection) throws SQLException {
+        int buyers = config.users() - config.shops();
+        long pairs = Math.min(config.conversations(), (long) buyers * config.shops());
+        try (Copy conversations = new Copy(connection, "conversation (conversation_id, user1_id, user2_id, created_date)")) {
+            for (long id = 1; id <= pairs; id++) {
+                conversations.row(id, buyerOf(id, buyers), 1 + ((id - 1) / buyers) % config.shops(),
+                        timestamp(conversationOpened(id)));
+            }
+        }
+        try (Copy messages = new Copy(connection, "message (message_id, conversation_id, sender_id, content, created_at)")) {
+            long messageId = 1;
+            for (long id = 1; id <= pairs; id++) {
+                long buyer = buyerOf(id, buyers);
+                long owner = 1 + ((id - 1) / buyers) % config.shops();
+                LocalDateTime opened = conversationOpened(id);
+                for (int m = 0; m < config.messagesPerConversation(); m++) {
+                    messages.row(messageId++, id, m % 2 == 0 ? buyer : owner,
+                            "Tin nhắn " + m + " về đơn hàng, còn hàng không ạ?", timestamp(opened.plusMinutes(m * 7L)));
+                }
+            }
+        }
+    }
+
+    private long buyerOf(long conversationId, int buyers) {
+        return config.shops() + 1 + (conversationId - 1) % buyers;
+    }
+
+    private LocalDateTime conversationOpened(long conversationId) {
+        return now.minusMinutes(rowRandom(2, conversationId).nextInt(90 * 24 * 60));
+    }
+
+    private SplittableRandom rowRandom(long stream, long id) {
+        return new SplittableRandom(config.seed() ^ (stream << 56) ^ (id * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Moves sequences past the generated ids and rebuilds what migrations derive from existing rows
+     */
+    private void finish(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            for (String[] table : new String[][]{
+                    {"users", "user_id"}, {"shop", "shop_id"}, {"products", "product_id"}, {"cart", "cart_id"},
+                    {"orders", "order_id"}, {"conversation", "conversation_id"}, {"message", "message_id"}}) {
+                st.execute("SELECT setval(pg_get_serial_sequence('" + table[0] + "', '" + table[1] + "'), "
+                        + "(SELECT COALESCE(MAX(" + table[1] + "), 1) FROM " + table[0] + "))");
+            }
+
+            // Same backfill as V13; the migration ran before these orders existed
+            st.execute("""
+                    INSERT INTO shop_daily_sales (shop_id, sales_date, order_count, units_sold, revenue)
+                    SELECT oi.shop_id, CAST(o.order_date AS DATE), COUNT(DISTINCT o.order_id),
+                           SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+                    FROM orders o JOIN order_items oi ON oi.order_id = o.order_id
+                    WHERE o.status <> 'CANCELLED'
+                    GROUP BY oi.shop_id, CAST(o.order_date AS DATE)
+                    """);
+            st.execute("""
+                    INSERT INTO product_daily_sales (product_id, sales_date, shop_id, units_sold, revenue)
+                    SELECT oi.product_id, CAST(o.order_date AS DATE), MIN(oi.shop_id),
+                           SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+                    FROM orders o JOIN order_items oi ON oi.order_id = o.order_id
+                    WHERE o.status <> 'CANCELLED'
+                    GROUP BY oi.product_id, CAST(o.order_date AS DATE)
+                    """);
+            st.execute("REFRESH MATERIALIZED VIEW product_ranking");
+        }
+    }
+
+    private List<Long> distinctProducts(SplittableRandom source, int n) {
+        List<Long> ids = new ArrayList<>(n);
+        while (ids.size() < n) {
+            long id = 1 + source.nextLong(config.products());
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static List<Long> categoryIds(Connection connection) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT category_id FROM categories ORDER BY category_id")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No categories found; V2 seed migration has not run");
+        }
+        return ids;
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return TS.format(value);
+    }
+
+    /**
+     * Buffered CSV writer over one COPY ... FROM STDIN; rows are flushed to the server every 64 KB
+     */
+    private static final class Copy implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final String target;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 1024);
+        private long rows;
+
+        Copy(Connection connection, String target) throws SQLException {
+            this.target = target;
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + target + " FROM STDIN (FORMAT csv)");
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendCsv(values[i]);
+            }
+            buffer.append('\n');
+            rows++;
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void appendCsv(Object value) {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof BigDecimal d ? d.toPlainString() : value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                buffer.append(text);
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+            log.info("COPY {}: {} rows", target.substring(0, target.indexOf(' ')), rows);
+        }
+    }
+}
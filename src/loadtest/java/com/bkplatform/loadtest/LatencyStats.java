@@ -0,0 +1,71 @@
+package com.bkplatform.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency samples (all of them, no reservoir: a two-minute run is a few hundred thousand longs)
+ */
+public class LatencyStats {
+
+    private final Map<String, Samples> byEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        byEndpoint.computeIfAbsent(endpoint, k -> new Samples()).add(nanos, ok);
+    }
+
+    /**
+     * One summary per endpoint, sorted by name: requests, errors, req/s over the window, p50/p90/p99/max in ms
+     */
+    public Map<String, Map<String, Object>> summarize(double windowSeconds) {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        byEndpoint.forEach((endpoint, samples) -> result.put(endpoint, samples.summarize(windowSeconds)));
+        return result;
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[4096];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized Map<String, Object> summarize(double windowSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", size);
+            summary.put("errors", errors);
+            summary.put("throughput", round(size / windowSeconds));
+            summary.put("p50Ms", percentileMs(sorted, 0.50));
+            summary.put("p90Ms", percentileMs(sorted, 0.90));
+            summary.put("p99Ms", percentileMs(sorted, 0.99));
+            summary.put("maxMs", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1e6));
+            return summary;
+        }
+
+        private static double percentileMs(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return round(sorted[Math.max(index, 0)] / 1e6);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bkplatform.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from -Dloadtest.* system properties (see the loadtest profile in pom.xml)
+ *
+ * @param jdbcUrl empty to start an embedded PostgreSQL
+ */
+public record LoadTestConfig(
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        int users,
+        int shops,
+        int products,
+        int orders,
+        int conversations,
+        int messagesPerConversation,
+        long seed,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        String scenarios,
+        Path resultFile) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig(
+                System.getProperty("loadtest.jdbc-url", ""),
+                System.getProperty("loadtest.jdbc-user", "postgres"),
+                System.getProperty("loadtest.jdbc-password", "postgres"),
+                Integer.getInteger("loadtest.users", 50_000),
+                Integer.getInteger("loadtest.shops", 2_000),
+                Integer.getInteger("loadtest.products", 1_000_000),
+                Integer.getInteger("loadtest.orders", 300_000),
+                Integer.getInteger("loadtest.conversations", 40_000),
+                Integer.getInteger("loadtest.messages-per-conversation", 12),
+                Long.getLong("loadtest.seed", 20240901L),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT30S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT2M")),
+                System.getProperty("loadtest.scenarios", "browse,search,cart,checkout,chat"),
+                Path.of(System.getProperty("loadtest.result-file", "target/loadtest-result.json")));
+        if (config.shops() < 1 || config.users() <= config.shops()) {
+            throw new IllegalArgumentException("loadtest.users must be greater than loadtest.shops (shop owners are users too)");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,165 @@
+package com.bkplatform.loadtest;
+
+import com.bkplatform.BkPlatformApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-to-end load test: database (embedded or -Dloadtest.jdbc-url), Flyway, synthetic dataset,
+ * the application booted in-process on a random port, then concurrent virtual users over HTTP.
+ * Prints per-endpoint throughput and latency percentiles and writes them to loadtest.result-file.
+ *
+ * Run with: MAVEN_OPTS=-Xmx4g mvn -Ploadtest verify [-Dloadtest.products=200000 -Dloadtest.duration=PT5M ...]
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = config.jdbcUrl();
+        String jdbcUser = config.jdbcUser();
+        String jdbcPassword = config.jdbcPassword();
+        if (jdbcUrl.isBlank()) {
+            embedded = EmbeddedPostgres.builder()
+                    .setServerConfig("shared_buffers", "512MB")
+                    .setServerConfig("max_connections", "200")
+                    .setServerConfig("fsync", "off")
+                    .setServerConfig("synchronous_commit", "off")
+                    .start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            jdbcUser = "postgres";
+            jdbcPassword = "postgres";
+            log.info("Started embedded PostgreSQL at {}", jdbcUrl);
+        }
+
+        ConfigurableApplicationContext context = null;
+        try {
+            // ✅ Schema and data before the application starts, so its startup caches (suggest index,
+            // rankings, locations) are built from the generated dataset
+            Flyway.configure().dataSource(jdbcUrl, jdbcUser, jdbcPassword).load().migrate();
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword)) {
+                new DataGenerator(config).generateIfMissing(connection);
+            }
+
+            context = new SpringApplicationBuilder(BkPlatformApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "management.server.port=0",
+                            "spring.datasource.url=" + jdbcUrl,
+                            "spring.datasource.username=" + jdbcUser,
+                            "spring.datasource.password=" + jdbcPassword,
+                            "spring.jpa.show-sql=false",
+                            "app.payments.callback-secret=loadtest-callback-secret",
+                            "logging.level.root=WARN",
+                            "logging.level.com.bkplatform=WARN",
+                            "logging.level.com.bkplatform.loadtest=INFO",
+                            "logging.level.org.hibernate.SQL=WARN",
+                            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                            "logging.level.org.springframework.security=WARN")
+                    .run();
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+
+            Map<String, Object> report = run(config, URI.create("http://localhost:" + port));
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            Files.createDirectories(config.resultFile().toAbsolutePath().getParent());
+            objectMapper.writeValue(config.resultFile().toFile(), report);
+            log.info("Wrote {}", config.resultFile().toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, URI baseUri) throws Exception {
+        List<String> scenarios = Arrays.stream(config.scenarios().split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        for (String scenario : scenarios) {
+            if (!VirtualUser.WEIGHTS.containsKey(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario '" + scenario + "', expected one of " + VirtualUser.WEIGHTS.keySet());
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LatencyStats stats = new LatencyStats();
+        AtomicBoolean recording = new AtomicBoolean(false);
+        ObjectMapper objectMapper = new ObjectMapper();
+        long deadline = System.nanoTime() + config.warmup().toNanos() + config.duration().toNanos();
+
+        log.info("Running {} virtual users for {} (+{} warm-up): {}", config.concurrency(), config.duration(), config.warmup(), scenarios);
+        Instant measuredFrom;
+        long measuredNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < config.concurrency(); i++) {
+                users.add(executor.submit(new VirtualUser(i, config, client, baseUri, stats, recording, deadline, objectMapper, scenarios)));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(config.warmup().toNanos());
+            recording.set(true);
+            measuredFrom = Instant.now();
+            long started = System.nanoTime();
+
+            for (Future<?> user : users) {
+                user.get();
+            }
+            measuredNanos = System.nanoTime() - started;
+        }
+
+        double seconds = measuredNanos / 1e9;
+        Map<String, Map<String, Object>> endpoints = stats.summarize(seconds);
+        printTable(endpoints, seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", measuredFrom.toString());
+        report.put("durationSeconds", Math.round(seconds));
+        report.put("concurrency", config.concurrency());
+        report.put("products", config.products());
+        report.put("scenarios", scenarios);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static void printTable(Map<String, Map<String, Object>> endpoints, double seconds) {
+        StringBuilder out = new StringBuilder(String.format("%nLoad test results over %.0f s%n", seconds));
+        out.append(String.format("%-44s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        endpoints.forEach((endpoint, s) -> out.append(String.format("%-44s %9s %7s %9s %9s %9s %9s %9s%n",
+                endpoint, s.get("requests"), s.get("errors"), s.get("throughput"),
+                s.get("p50Ms"), s.get("p90Ms"), s.get("p99Ms"), s.get("maxMs"))));
+        log.info(out.toString());
+    }
+}
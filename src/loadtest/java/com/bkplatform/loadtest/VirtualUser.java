@@ -0,0 +1,206 @@
+package com.bkplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One logged-in buyer running the weighted scenario mix until the deadline.
+ * Latencies are only recorded while {@code recording} is set (after warm-up).
+ */
+public class VirtualUser implements Runnable {
+
+    /**
+     * Relative weights of the scenarios; a buyer mostly browses and searches
+     */
+    static final Map<String, Integer> WEIGHTS = Map.of(
+            "browse", 40,
+            "search", 30,
+            "cart", 15,
+            "checkout", 10,
+            "chat", 5);
+
+    private static final List<String> SEARCH_TERMS = List.of(
+            "giáo trình", "casio", "tai nghe", "bàn phím", "arduino", "ssd", "balo", "gia sư");
+    private static final List<String> SORTS = List.of("newest", "price_asc", "price_desc", "bestseller", "top_rated");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final URI baseUri;
+    private final LatencyStats stats;
+    private final AtomicBoolean recording;
+    private final long deadlineNanos;
+    private final ObjectMapper objectMapper;
+    private final List<String> scenarios;
+    private final SplittableRandom random;
+    private final long userId;
+
+    private String token;
+
+    public VirtualUser(int index, LoadTestConfig config, HttpClient client, URI baseUri, LatencyStats stats,
+                       AtomicBoolean recording, long deadlineNanos, ObjectMapper objectMapper, List<String> scenarios) {
+        this.config = config;
+        this.client = client;
+        this.baseUri = baseUri;
+        this.stats = stats;
+        this.recording = recording;
+        this.deadlineNanos = deadlineNanos;
+        this.objectMapper = objectMapper;
+        this.scenarios = scenarios;
+        this.random = new SplittableRandom(config.seed() + index);
+        this.userId = config.shops() + 1L + index % (config.users() - config.shops());
+    }
+
+    @Override
+    public void run() {
+        try {
+            login();
+            while (System.nanoTime() < deadlineNanos) {
+                try {
+                    switch (pickScenario()) {
+                        case "browse" -> browse();
+                        case "search" -> search();
+                        case "cart" -> cart();
+                        case "checkout" -> checkout();
+                        case "chat" -> chat();
+                        default -> throw new IllegalStateException("Unknown scenario");
+                    }
+                } catch (IOException e) {
+                    // Timeouts and resets count against the run, the user carries on
+                    if (recording.get()) {
+                        stats.record("I/O error", 0, false);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Login failed for user " + userId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void login() throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "usernameOrEmail", DataGenerator.USERNAME_PREFIX + userId,
+                "password", DataGenerator.PASSWORD));
+        HttpResponse<byte[]> response = send("POST /api/auth/login", post("/api/auth/login", body));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for user " + userId + ": HTTP " + response.statusCode());
+        }
+        token = objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    private void browse() throws IOException, InterruptedException {
+        String query = "?page=" + random.nextInt(50) + "&size=12"
+                + (random.nextBoolean() ? "&categoryId=" + (1 + random.nextInt(3)) : "");
+        send("GET /api/products", get("/api/products" + query));
+        send("GET /api/products/{id}", get("/api/products/" + randomProductId()));
+    }
+
+    private void search() throws IOException, InterruptedException {
+        boolean facets = random.nextInt(4) == 0;
+        String query = "?search=" + URLEncoder.encode(pick(SEARCH_TERMS), StandardCharsets.UTF_8)
+                + "&sort=" + pick(SORTS) + "&inStock=true&page=" + random.nextInt(5) + "&size=12"
+                + (facets ? "&facets=true" : "");
+        send(facets ? "GET /api/products?search&facets" : "GET /api/products?search", get("/api/products" + query));
+    }
+
+    private void cart() throws IOException, InterruptedException {
+        addToCart();
+        send("GET /api/cart", get("/api/cart"));
+    }
+
+    private void checkout() throws IOException, InterruptedException {
+        addToCart();
+        send("POST /api/orders/checkout", post("/api/orders/checkout", "{}"));
+    }
+
+    private void chat() throws IOException, InterruptedException {
+        long ownerId = DataGenerator.ownerOfShop(1 + random.nextInt(config.shops()));
+        HttpRequest message = authorized(HttpRequest.newBuilder(baseUri.resolve("/api/conversations/" + ownerId + "/messages"))
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString("Còn hàng không shop? #" + random.nextInt(1_000_000))));
+        send("POST /api/conversations/{userId}/messages", message);
+
+        HttpResponse<byte[]> list = send("GET /api/conversations", get("/api/conversations"));
+        if (list.statusCode() == 200) {
+            JsonNode conversations = objectMapper.readTree(list.body());
+            if (conversations.isArray() && !conversations.isEmpty()) {
+                long conversationId = conversations.get(random.nextInt(conversations.size())).path("conversationId").asLong();
+                send("GET /api/conversations/{id}/messages", get("/api/conversations/" + conversationId + "/messages"));
+            }
+        }
+    }
+
+    private void addToCart() throws IOException, InterruptedException {
+        String body = "{\"productId\":" + randomProductId() + ",\"quantity\":1}";
+        send("POST /api/cart/items", post("/api/cart/items", body));
+    }
+
+    private long randomProductId() {
+        long id;
+        do {
+            id = 1 + random.nextLong(config.products());
+        } while (DataGenerator.stockOf(id) == 0);
+        return id;
+    }
+
+    private String pickScenario() {
+        int total = 0;
+        for (String scenario : scenarios) {
+            total += WEIGHTS.get(scenario);
+        }
+        int roll = random.nextInt(total);
+        for (String scenario : scenarios) {
+            roll -= WEIGHTS.get(scenario);
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(HttpRequest.newBuilder(baseUri.resolve(path)).GET());
+    }
+
+    private HttpRequest post(String path, String json) {
+        return authorized(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    private HttpRequest authorized(HttpRequest.Builder builder) {
+        builder.timeout(TIMEOUT).header("Accept-Encoding", "identity");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (recording.get()) {
+            stats.record(endpoint, System.nanoTime() - started, response.statusCode() < 400);
+        }
+        return response;
+    }
+}
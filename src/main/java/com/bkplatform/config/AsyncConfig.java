@@ -0,0 +1,91 @@
+package com.bkplatform.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pools for background work that must never pile up on request threads
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Spring MVC async work (StreamingResponseBody, Callable) and any unqualified @Async.
+     * Declared here because Boot backs off its own applicationTaskExecutor as soon as the app defines
+     * a ThreadPoolTaskExecutor, and MVC would then fall back to an unbounded SimpleAsyncTaskExecutor.
+     * Sized by spring.task.execution.pool.* through Boot's builder.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Outgoing mail (@Async("emailExecutor") on EmailService). A full queue drops the mail with a warning:
+     * the caller is usually a request thread, often inside a transaction, and must never wait on SMTP.
+     * Queue depth is exported as executor_queued_tasks{name="emailExecutor"}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emailExecutor(
+            @Value("${app.mail.workers:2}") int workers,
+            @Value("${app.mail.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Email queue full ({} pending), dropping message", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Resized image variants. When the queue is full the task is dropped:
+     * ImageController falls back to the original until the variant exists.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageVariantExecutor(
+            @Value("${app.images.variant-workers:2}") int workers,
+            @Value("${app.images.variant-queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Image variant queue full ({} pending), skipping task", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Payment gateway calls and provider callbacks. Rejections are not swallowed here:
+     * PaymentService leaves rejected charges to the recovery sweep and answers rejected callbacks with 503.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor paymentExecutor(
+            @Value("${app.payments.workers:4}") int workers,
+            @Value("${app.payments.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bkplatform.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process application caches (Caffeine)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SHOP_STOREFRONT = "shopStorefront";
+    public static final String CATEGORY_FACETS = "categoryFacets";
+
+    /**
+     * ✅ Transaction-aware: evictions issued inside a write transaction are applied after commit,
+     * so a concurrent reader cannot re-cache the pre-commit state
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.shop-storefront.ttl:PT1M}") Duration shopStorefrontTtl,
+            @Value("${app.cache.shop-storefront.max-size:10000}") long shopStorefrontMaxSize,
+            @Value("${app.cache.category-facets.ttl:PT30S}") Duration categoryFacetsTtl,
+            @Value("${app.cache.category-facets.max-size:1000}") long categoryFacetsMaxSize) {
+
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.registerCustomCache(SHOP_STOREFRONT, Caffeine.newBuilder()
+                .expireAfterWrite(shopStorefrontTtl)
+                .maximumSize(shopStorefrontMaxSize)
+                .recordStats()
+                .build());
+        // Short TTL instead of eviction: counts change with every product write
+        manager.registerCustomCache(CATEGORY_FACETS, Caffeine.newBuilder()
+                .expireAfterWrite(categoryFacetsTtl)
+                .maximumSize(categoryFacetsMaxSize)
+                .recordStats()
+                .build());
+
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bkplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control policies of the public catalog endpoints (browser and CDN).
+ * Responses also carry an ETag, so once max-age runs out a revalidation is a cheap 304;
+ * stale-while-revalidate lets caches serve the old copy while they revalidate in the background.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final CacheControl product;
+    private final CacheControl productList;
+    private final CacheControl ranking;
+
+    public HttpCachePolicy(
+            @Value("${app.http-cache.product.max-age:PT1M}") Duration productMaxAge,
+            @Value("${app.http-cache.product.stale-while-revalidate:PT5M}") Duration productSwr,
+            @Value("${app.http-cache.product-list.max-age:PT30S}") Duration listMaxAge,
+            @Value("${app.http-cache.product-list.stale-while-revalidate:PT2M}") Duration listSwr,
+            @Value("${app.http-cache.ranking.max-age:PT5M}") Duration rankingMaxAge,
+            @Value("${app.http-cache.ranking.stale-while-revalidate:PT10M}") Duration rankingSwr) {
+        this.product = build(productMaxAge, productSwr);
+        this.productList = build(listMaxAge, listSwr);
+        this.ranking = build(rankingMaxAge, rankingSwr);
+    }
+
+    /**
+     * GET /api/products/{id}
+     */
+    public CacheControl product() {
+        return product;
+    }
+
+    /**
+     * GET /api/products (search / filter pages)
+     */
+    public CacheControl productList() {
+        return productList;
+    }
+
+    /**
+     * GET /api/products/top (changes only on ranking refresh)
+     */
+    public CacheControl ranking() {
+        return ranking;
+    }
+
+    private static CacheControl build(Duration maxAge, Duration staleWhileRevalidate) {
+        return CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(staleWhileRevalidate);
+    }
+}
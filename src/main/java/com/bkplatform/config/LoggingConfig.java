@@ -0,0 +1,69 @@
+package com.bkplatform.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-request DEBUG sampling for the prod profile: one request in app.logging.debug-sample-rate is picked when it
+ * arrives and marked in the MDC, and SampledDebugTurboFilter (logback-spring.xml) lets the DEBUG lines of its
+ * request-path loggers through only for marked requests, so a sampled request is logged end to end.
+ * Off unless the property is set (application-prod.properties).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.logging.debug-sample-rate")
+public class LoggingConfig {
+
+    /**
+     * Outermost filter, so the JWT lookup and the statement count report are in the same sample
+     */
+    @Bean
+    public FilterRegistrationBean<DebugSamplingFilter> debugSamplingFilter(
+            @Value("${app.logging.debug-sample-rate}") int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("app.logging.debug-sample-rate must be at least 1");
+        }
+        FilterRegistrationBean<DebugSamplingFilter> registration = new FilterRegistrationBean<>(new DebugSamplingFilter(sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static class DebugSamplingFilter extends OncePerRequestFilter {
+
+        private final int sampleRate;
+
+        DebugSamplingFilter(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                        @NonNull FilterChain chain) throws ServletException, IOException {
+            if (ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            MDC.put(SampledDebugTurboFilter.MDC_KEY, "true");
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Pooled request thread: the next request decides for itself
+                MDC.remove(SampledDebugTurboFilter.MDC_KEY);
+            }
+        }
+    }
+}
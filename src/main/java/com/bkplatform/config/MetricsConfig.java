@@ -0,0 +1,20 @@
+package com.bkplatform.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application timers. Pool, executor, Hibernate and HTTP server metrics are bound by actuator;
+ * this adds the aspect behind @Timed (bk.product.search, bk.order.checkout, bk.cart).
+ * Percentile histograms for the bk.* timers are switched on in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,211 @@
+package com.bkplatform.config;
+
+import com.bkplatform.exception.StatementBudgetExceededException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Dev-time N+1 guard: counts the SQL statements of each request through a datasource-proxy wrapper.
+ * - X-SQL-Statement-Count response header (stamped before the first body byte)
+ * - @StatementBudget on a handler method: over budget is a warning, or a 500 in strict mode
+ *   (the statement that crosses the budget throws, so the offending call shows in the stack trace)
+ * Streamed bodies count their cursor query on the async thread (see StreamingJsonWriter); for those
+ * the header only covers the statements run before the body started, the budget check covers all of them.
+ * Off by default; application-dev.properties turns it on.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.query-count.enabled", havingValue = "true")
+public class QueryCountConfig implements WebMvcConfigurer {
+
+    static final String HEADER = "X-SQL-Statement-Count";
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(
+            @Value("${app.query-count.strict:false}") boolean strict) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                log.info("Counting SQL statements per request on data source '{}' (strict={})", beanName, strict);
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .beforeQuery((execution, queries) -> countStatement(strict))
+                        .build();
+            }
+        };
+    }
+
+    private static void countStatement(boolean strict) {
+        QueryCounter.Request request = QueryCounter.current();
+        if (request == null) {
+            return;
+        }
+        request.statements++;
+        if (strict && request.overBudget()) {
+            throw new StatementBudgetExceededException(String.format(
+                    "%s ran %d SQL statements, budget is %d", request.endpoint, request.statements, request.budget));
+        }
+    }
+
+    /**
+     * Runs right inside LoggingConfig's sampling filter, ahead of the security chain, so the JWT user lookup is counted too
+     */
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+            @Value("${app.query-count.header:true}") boolean header) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter(header));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor());
+    }
+
+    /**
+     * Binds the budget of the matched handler to the request's counter
+     */
+    static class StatementBudgetInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                 @NonNull Object handler) {
+            QueryCounter.Request counter = QueryCounter.current();
+            if (counter != null && handler instanceof HandlerMethod method) {
+                StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+                if (budget != null) {
+                    counter.budget = budget.value();
+                    counter.endpoint = request.getMethod() + " "
+                            + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                }
+            }
+            return true;
+        }
+    }
+
+    static class QueryCountFilter extends OncePerRequestFilter {
+
+        private final boolean header;
+
+        QueryCountFilter(boolean header) {
+            this.header = header;
+        }
+
+        @Override
+        protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                        @NonNull FilterChain chain) throws ServletException, IOException {
+            QueryCounter.Request counter = QueryCounter.start();
+            request.setAttribute(QueryCounter.REQUEST_ATTRIBUTE, counter);
+            try {
+                HttpServletResponse target = header ? new StampingResponse(response, counter) : response;
+                chain.doFilter(request, target);
+                if (header && !response.isCommitted()) {
+                    response.setHeader(HEADER, Integer.toString(counter.statements));
+                }
+
+                // ✅ Streamed body still running on another thread: check the budget once it is done
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new AsyncListener() {
+                        @Override
+                        public void onComplete(AsyncEvent event) {
+                            report(request, counter);
+                        }
+
+                        @Override
+                        public void onTimeout(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onError(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onStartAsync(AsyncEvent event) {
+                        }
+                    });
+                } else {
+                    report(request, counter);
+                }
+            } finally {
+                QueryCounter.clear();
+            }
+        }
+
+        private static void report(HttpServletRequest request, QueryCounter.Request counter) {
+            if (counter.overBudget()) {
+                log.warn("Statement budget exceeded: {} ran {} SQL statements, budget is {}",
+                        counter.endpoint, counter.statements, counter.budget);
+            } else if (log.isDebugEnabled()) {
+                log.debug("{} {}: {} SQL statements", request.getMethod(), request.getRequestURI(), counter.statements);
+            }
+        }
+    }
+
+    /**
+     * Writes the count header just before the body starts, while headers can still change
+     */
+    static class StampingResponse extends HttpServletResponseWrapper {
+
+        private final QueryCounter.Request counter;
+
+        StampingResponse(HttpServletResponse response, QueryCounter.Request counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        private void stamp() {
+            if (!isCommitted()) {
+                setHeader(HEADER, Integer.toString(counter.statements));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.bkplatform.config;
+
+/**
+ * Per-request SQL statement count, bound to the request thread by QueryCountConfig's filter.
+ * Work the request hands to another thread is counted only if that thread binds the request's counter
+ * (StreamingJsonWriter does for streamed bodies); other async workers are not attributed to the request.
+ */
+public final class QueryCounter {
+
+    /** Request attribute holding the counter, readable after the request completes (tests, async completion) */
+    public static final String REQUEST_ATTRIBUTE = QueryCounter.class.getName() + ".REQUEST";
+
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    static Request start() {
+        Request request = new Request();
+        CURRENT.set(request);
+        return request;
+    }
+
+    /**
+     * Counter of the request running on this thread, null outside a counted request
+     */
+    public static Request current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Count this thread's statements against a request captured with current() on the request thread.
+     * A null request (counting off) is ignored. Pair with clear() in a finally block.
+     */
+    public static void bind(Request request) {
+        if (request != null) {
+            CURRENT.set(request);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statements run so far by the current request, -1 when counting is off
+     */
+    public static int statements() {
+        Request request = CURRENT.get();
+        return request != null ? request.statements : -1;
+    }
+
+    public static final class Request {
+        // Written by one thread at a time: the request thread, then the streaming thread
+        volatile int statements;
+        volatile int budget = -1;
+        volatile String endpoint;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * @StatementBudget of the matched handler, -1 when it has none
+         */
+        public int getBudget() {
+            return budget;
+        }
+
+        boolean overBudget() {
+            return budget >= 0 && statements > budget;
+        }
+    }
+}
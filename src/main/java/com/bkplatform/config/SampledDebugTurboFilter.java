@@ -0,0 +1,54 @@
+package com.bkplatform.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logback turbo filter for the prod profile (logback-spring.xml): DEBUG/TRACE events of the configured logger
+ * prefixes only get through on requests that LoggingConfig's filter picked for sampling (MDC key {@link #MDC_KEY}).
+ * Turning DEBUG on for a request-path logger in production then shows every line of a sample of requests,
+ * instead of scattered lines of all of them. Outside a sampled request (schedulers, async workers) they are dropped.
+ * Runs before the level check on every logging call, so the common path is two comparisons and no shared state.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    /** Set to "true" for the duration of a sampled request */
+    public static final String MDC_KEY = "debugSampled";
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+
+    /**
+     * Logback config: one {@code <logger>} element per prefix
+     */
+    public void addLogger(String prefix) {
+        loggerPrefixes.add(prefix.trim());
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.levelInt > Level.DEBUG_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        // Disabled anyway: leave it to the normal level check
+        if (logger.getEffectiveLevel().levelInt > level.levelInt || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(MDC_KEY) != null ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bkplatform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs (ranking refresh, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.bkplatform.config;
 
 import com.bkplatform.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -55,19 +56,31 @@ public class SecurityConfig {
 
                 // ✅ Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // ✅ Second dispatch of a streamed response (StreamingResponseBody): the request was authorized
+                        // on its first dispatch, and JwtAuthFilter does not run again, so the context here is anonymous
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // OPTIONS requests (CORS preflight) - always allow
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
                         // Public auth endpoints
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
 
+                        // Payment provider callbacks (authenticated by HMAC signature, not JWT)
+                        .requestMatchers(HttpMethod.POST, "/api/payments/callback").permitAll()
+
                         // Public API documentation (if using Swagger)
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
 
+                        // Health probe and Prometheus scrape: only served on management.server.port, never on the public one
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
+
                         // ✅ Public READ endpoints (GET without authentication)
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/shops/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/locations/**").permitAll()
 
                         // ✅ WRITE operations - require authentication
                         .requestMatchers(HttpMethod.POST, "/api/products/**").authenticated()
@@ -126,7 +139,9 @@ public class SecurityConfig {
                 "Content-Type",
                 "Accept",
                 "X-Requested-With",
-                "Cache-Control"
+                "Cache-Control",
+                "If-Match",
+                "If-None-Match"
         ));
 
         // ✅ Allowed methods
@@ -143,7 +158,8 @@ public class SecurityConfig {
         config.setExposedHeaders(List.of(
                 "Authorization",
                 "X-Token-Expired",
-                "X-Total-Count"
+                "X-Total-Count",
+                "ETag"
         ));
 
         // ✅ Cache preflight requests for 1 hour
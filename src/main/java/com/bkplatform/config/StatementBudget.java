@@ -0,0 +1,20 @@
+package com.bkplatform.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements one request to this endpoint may run, JWT user lookup included.
+ * Checked only when app.query-count.enabled=true (see QueryCountConfig). A JDBC batch counts as one statement.
+ * Budgets are constants on purpose: a statement per returned row breaks them as soon as the page grows.
+ * The *StatementCountTest integration tests measure each endpoint with one row and with many against its budget.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
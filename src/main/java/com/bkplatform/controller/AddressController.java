@@ -0,0 +1,63 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.AddressRequest;
+import com.bkplatform.dto.AddressResponse;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.AddressBookService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/me/addresses")
+@RequiredArgsConstructor
+public class AddressController {
+
+    private final AddressBookService addressBookService;
+    private final UserRepository userRepository;
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<AddressResponse>> list(@AuthenticationPrincipal UserDetails principal) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(addressBookService.getAddresses(user));
+    }
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AddressResponse> create(
+            @AuthenticationPrincipal UserDetails principal,
+            @Valid @RequestBody AddressRequest request) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.status(HttpStatus.CREATED).body(addressBookService.create(request, user));
+    }
+
+    @PutMapping("/{addressId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AddressResponse> update(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long addressId,
+            @Valid @RequestBody AddressRequest request) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(addressBookService.update(addressId, request, user));
+    }
+
+    @DeleteMapping("/{addressId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> delete(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long addressId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        addressBookService.delete(addressId, user);
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Address deleted"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.service.LocationHierarchy;
+import com.bkplatform.service.ReferenceCacheService;
+import com.bkplatform.service.ShippingRateTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final ReferenceCacheService referenceCacheService;
+    private final LocationHierarchy locationHierarchy;
+    private final ShippingRateTable shippingRateTable;
+
+    /**
+     * ✅ ADMIN - Second-level cache statistics per reference region
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(referenceCacheService.getStatistics());
+    }
+
+    /**
+     * ✅ ADMIN - Evict and reload reference rows (e.g. after a manual data fix)
+     */
+    @PostMapping("/reference/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadReference() {
+        referenceCacheService.reload();
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Reference cache reloaded"));
+    }
+
+    /**
+     * ✅ ADMIN - Rebuild the in-memory province/district/ward tree without waiting for the migration check
+     */
+    @PostMapping("/locations/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadLocations() {
+        locationHierarchy.reload();
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Location hierarchy reloaded"));
+    }
+
+    /**
+     * ✅ ADMIN - Reload the shipping rate matrix after editing shipping_rate
+     */
+    @PostMapping("/shipping-rates/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadShippingRates() {
+        shippingRateTable.reload();
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Shipping rates reloaded"));
+    }
+}
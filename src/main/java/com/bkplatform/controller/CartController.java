@@ -1,5 +1,6 @@
 package com.bkplatform.controller;
 
+import com.bkplatform.config.StatementBudget;
 import com.bkplatform.dto.AddCartItemRequest;
 import com.bkplatform.dto.UpdateCartItemRequest;
 import com.bkplatform.model.User;
@@ -25,6 +26,7 @@ public class CartController {
      * ✅ Get current user's cart
      */
     @GetMapping
+    @StatementBudget(12)
     public ResponseEntity<?> getCart(@AuthenticationPrincipal UserDetails principal) {
         User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
         return ResponseEntity.ok(cartService.getCart(user));
@@ -34,6 +36,7 @@ public class CartController {
      * ✅ Add item to cart - FIX: Return meaningful response
      */
     @PostMapping("/items")
+    @StatementBudget(14)
     public ResponseEntity<?> addItem(
             @AuthenticationPrincipal UserDetails principal,
             @Valid @RequestBody AddCartItemRequest req) {
@@ -52,6 +55,7 @@ public class CartController {
      * ✅ Update cart item quantity - FIX: Return meaningful response
      */
     @PutMapping("/items/{productId}")
+    @StatementBudget(14)
     public ResponseEntity<?> updateItem(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long productId,
@@ -72,6 +76,7 @@ public class CartController {
      * ✅ Remove item from cart - FIX: Return meaningful response
      */
     @DeleteMapping("/items/{productId}")
+    @StatementBudget(10)
     public ResponseEntity<?> removeItem(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long productId) {
@@ -0,0 +1,36 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.CategoryFacetResponse;
+import com.bkplatform.model.Category;
+import com.bkplatform.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+    private final CategoryService categoryService;
+
+    /**
+     * ✅ PUBLIC - Categories with product counts and price ranges for the current search term
+     */
+    @GetMapping
+    public ResponseEntity<List<CategoryFacetResponse>> list(@RequestParam(required = false) String search) {
+        if (search != null && search.length() > 100) {
+            throw new IllegalArgumentException("Search term is too long");
+        }
+        return ResponseEntity.ok(categoryService.getCategoriesWithFacets(search));
+    }
+
+    /**
+     * ✅ PUBLIC - Single category
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Category> getById(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getById(id));
+    }
+}
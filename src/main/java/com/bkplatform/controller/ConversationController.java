@@ -1,17 +1,21 @@
 package com.bkplatform.controller;
 
+import com.bkplatform.config.StatementBudget;
 import com.bkplatform.model.Conversation;
 import com.bkplatform.model.Message;
 import com.bkplatform.model.User;
 import com.bkplatform.repository.ConversationRepository;
 import com.bkplatform.repository.MessageRepository;
 import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.StreamingJsonWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,8 +26,10 @@ public class ConversationController {
     private final ConversationRepository conversationRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final StreamingJsonWriter streamingJsonWriter;
 
     @GetMapping
+    @StatementBudget(8)
     public ResponseEntity<List<Conversation>> mine(@AuthenticationPrincipal UserDetails principal) {
         User me = userRepository.findByUsername(principal.getUsername()).orElseThrow();
         return ResponseEntity.ok(conversationRepository.findByUser1OrUser2(me, me));
@@ -33,7 +39,8 @@ public class ConversationController {
      * ✅ FIX: Thêm authorization check - chỉ user trong conversation mới xem được messages
      */
     @GetMapping("/{id}/messages")
-    public ResponseEntity<List<Message>> messages(
+    @StatementBudget(5)
+    public ResponseEntity<StreamingResponseBody> messages(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id) {
 
@@ -41,17 +48,22 @@ public class ConversationController {
         Conversation c = conversationRepository.findById(id).orElseThrow();
 
         // ✅ Kiểm tra user có quyền xem conversation này không
-        if (!c.getUser1().equals(me) && !c.getUser2().equals(me)) {
+        // (so sánh theo id: entity được load ở các session khác nhau nên equals() luôn false)
+        if (!c.getUser1().getUserId().equals(me.getUserId()) && !c.getUser2().getUserId().equals(me.getUserId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        return ResponseEntity.ok(messageRepository.findByConversationOrderByCreatedAtAsc(c));
+        // ✅ Streamed: long histories are written as they are read
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamingJsonWriter.array("message", () -> messageRepository.streamByConversationOrderByCreatedAtAsc(c)));
     }
 
     /**
      * ✅ FIX: Validate content không rỗng
      */
     @PostMapping("/{otherUserId}/messages")
+    @StatementBudget(10)
     public ResponseEntity<?> send(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long otherUserId,
@@ -73,15 +85,16 @@ public class ConversationController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // ✅ Tìm hoặc tạo conversation
+        // (lazily: an eager orElse(...) would insert a duplicate pair whenever the reversed lookup misses)
         Conversation c = conversationRepository.findByUser1AndUser2(me, other)
-                .orElse(conversationRepository.findByUser1AndUser2(other, me)
-                        .orElseGet(() -> {
-                            Conversation nc = Conversation.builder()
-                                    .user1(me)
-                                    .user2(other)
-                                    .build();
-                            return conversationRepository.save(nc);
-                        }));
+                .or(() -> conversationRepository.findByUser1AndUser2(other, me))
+                .orElseGet(() -> {
+                    Conversation nc = Conversation.builder()
+                            .user1(me)
+                            .user2(other)
+                            .build();
+                    return conversationRepository.save(nc);
+                });
 
         Message m = Message.builder()
                 .conversation(c)
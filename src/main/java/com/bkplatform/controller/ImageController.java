@@ -0,0 +1,71 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.service.ImageStorageService;
+import com.bkplatform.service.ImageStorageService.Variant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored images straight from disk.
+ * Content-addressed URLs never change content, so responses carry a strong ETag (the hash)
+ * and a one-year immutable Cache-Control. Range requests are handled by Spring's
+ * ResourceRegionHttpMessageConverter, which copies the file region without loading it in memory.
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+    private final ImageStorageService storageService;
+
+    /**
+     * ✅ PUBLIC - Image bytes; variant = thumb | medium | original
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> get(
+            @PathVariable String hash,
+            @RequestParam(defaultValue = "original") String variant,
+            WebRequest request) {
+
+        Variant type = switch (variant.toLowerCase()) {
+            case "thumb" -> Variant.THUMB;
+            case "medium" -> Variant.MEDIUM;
+            case "original" -> Variant.ORIGINAL;
+            default -> throw new IllegalArgumentException("Unknown image variant: " + variant);
+        };
+
+        Path path = storageService.find(hash, type).orElse(null);
+        if (path == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Until the variant is generated the original is served; tag and cache it as such
+        boolean fallback = type != Variant.ORIGINAL && !path.equals(storageService.variantPath(hash, type));
+        String etag = "\"" + hash + "-" + (fallback ? Variant.ORIGINAL : type).pathName() + "\"";
+        CacheControl cacheControl = fallback
+                ? CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        String fileName = path.getFileName().toString();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(ImageStorageService.contentTypeFor(extension)))
+                .body(new FileSystemResource(path));
+    }
+}
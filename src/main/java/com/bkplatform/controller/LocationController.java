@@ -0,0 +1,49 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.service.LocationHierarchy;
+import com.bkplatform.service.LocationHierarchy.Division;
+import com.bkplatform.service.LocationHierarchy.WardPath;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ✅ PUBLIC - Administrative divisions for cascading address dropdowns, served from memory
+ */
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+public class LocationController {
+
+    // Reference data changes only with a deployment
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    private final LocationHierarchy locationHierarchy;
+
+    @GetMapping("/provinces")
+    public ResponseEntity<List<Division>> provinces() {
+        return ResponseEntity.ok().cacheControl(CACHE).body(locationHierarchy.getProvinces());
+    }
+
+    @GetMapping("/provinces/{provinceId}/districts")
+    public ResponseEntity<List<Division>> districts(@PathVariable Long provinceId) {
+        return ResponseEntity.ok().cacheControl(CACHE).body(locationHierarchy.getDistricts(provinceId));
+    }
+
+    @GetMapping("/districts/{districtId}/wards")
+    public ResponseEntity<List<Division>> wards(@PathVariable Long districtId) {
+        return ResponseEntity.ok().cacheControl(CACHE).body(locationHierarchy.getWards(districtId));
+    }
+
+    @GetMapping("/wards/{wardId}")
+    public ResponseEntity<WardPath> ward(@PathVariable Long wardId) {
+        WardPath ward = locationHierarchy.findWard(wardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ward not found with id: " + wardId));
+        return ResponseEntity.ok().cacheControl(CACHE).body(ward);
+    }
+}
@@ -1,18 +1,23 @@
 package com.bkplatform.controller;
 
+import com.bkplatform.config.StatementBudget;
+import com.bkplatform.dto.CheckoutRequest;
 import com.bkplatform.dto.CheckoutResponse;
 import com.bkplatform.model.Order;
 import com.bkplatform.model.User;
 import com.bkplatform.repository.OrderRepository;
 import com.bkplatform.repository.UserRepository;
 import com.bkplatform.service.OrderService;
+import com.bkplatform.service.StreamingJsonWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -20,16 +25,53 @@ public class OrderController {
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final StreamingJsonWriter streamingJsonWriter;
 
+    // ✅ Constant whatever the cart size: stock, order lines and cart cleanup are one statement each
     @PostMapping("/checkout")
-    public ResponseEntity<CheckoutResponse> checkout(@AuthenticationPrincipal UserDetails principal) {
+    @StatementBudget(40)
+    public ResponseEntity<CheckoutResponse> checkout(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestBody(required = false) CheckoutRequest request) {
         User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
-        return ResponseEntity.ok(orderService.checkout(user));
+        return ResponseEntity.ok(orderService.checkout(user, request));
     }
 
+    /**
+     * ✅ Streamed: orders are written as they are read, the full history is never loaded at once
+     */
     @GetMapping
-    public ResponseEntity<List<Order>> myOrders(@AuthenticationPrincipal UserDetails principal) {
+    @StatementBudget(4)
+    public ResponseEntity<StreamingResponseBody> myOrders(@AuthenticationPrincipal UserDetails principal) {
         User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
-        return ResponseEntity.ok(orderRepository.findByUserOrderByOrderDateDesc(user));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamingJsonWriter.array("order", () -> orderRepository.streamByUserOrderByOrderDateDesc(user)));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{orderId}")
+    @StatementBudget(8)
+    public ResponseEntity<Order> get(@AuthenticationPrincipal UserDetails principal, @PathVariable Long orderId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(orderService.getOrderById(orderId, user));
+    }
+
+    /**
+     * ✅ Allowed until the order ships; the order is kept with status CANCELLED
+     */
+    @PostMapping("/{orderId}/cancel")
+    @StatementBudget(24)
+    public ResponseEntity<?> cancel(@AuthenticationPrincipal UserDetails principal, @PathVariable Long orderId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        orderService.cancelOrder(orderId, user);
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Order cancelled"));
+    }
+
+    @PostMapping("/{orderId}/delivered")
+    @StatementBudget(10)
+    public ResponseEntity<?> delivered(@AuthenticationPrincipal UserDetails principal, @PathVariable Long orderId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        orderService.confirmDelivered(orderId, user);
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Order marked as delivered"));
+    }
+}
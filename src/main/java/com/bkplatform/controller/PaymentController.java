@@ -0,0 +1,81 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.PaymentCallbackRequest;
+import com.bkplatform.dto.PaymentResponse;
+import com.bkplatform.exception.UnauthorizedException;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/payments")
+@RequiredArgsConstructor
+public class PaymentController {
+
+    private final PaymentService paymentService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/orders/{orderId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaymentResponse> get(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long orderId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(paymentService.getForOrder(orderId, user));
+    }
+
+    /**
+     * Charge a failed online payment again
+     */
+    @PostMapping("/orders/{orderId}/retry")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaymentResponse> retry(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long orderId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(paymentService.retry(orderId, user));
+    }
+
+    /**
+     * ✅ PUBLIC - Provider callback. The signature is checked over the raw body before parsing;
+     * the callback is only queued here and applied by a payment worker.
+     */
+    @PostMapping("/callback")
+    public ResponseEntity<?> callback(
+            @RequestHeader(value = "X-Payment-Signature", required = false) String signature,
+            @RequestBody byte[] body) throws IOException {
+
+        if (!paymentService.isValidSignature(body, signature)) {
+            throw new UnauthorizedException("Invalid payment callback signature");
+        }
+
+        PaymentCallbackRequest callback = objectMapper.readValue(body, PaymentCallbackRequest.class);
+        if (callback.getTransactionId() == null) {
+            throw new IllegalArgumentException("transactionId is required");
+        }
+
+        try {
+            paymentService.acceptCallback(callback);
+        } catch (TaskRejectedException e) {
+            log.warn("Payment queue full, rejecting callback for transaction {}", callback.getTransactionId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("status", "error", "message", "Busy, retry later"));
+        }
+        return ResponseEntity.accepted().body(Map.of("status", "success", "message", "Callback queued"));
+    }
+}
@@ -1,23 +1,47 @@
 package com.bkplatform.controller;
 
+import com.bkplatform.config.StatementBudget;
+import com.bkplatform.config.HttpCachePolicy;
 import com.bkplatform.dto.CreateProductRequest;
+import com.bkplatform.dto.InventoryUpdateRequest;
+import com.bkplatform.dto.InventoryUpdateResponse;
+import com.bkplatform.dto.ProductImportResponse;
+import com.bkplatform.dto.ProductListItemResponse;
+import com.bkplatform.dto.ProductSearchCriteria;
+import com.bkplatform.dto.ProductSearchResponse;
+import com.bkplatform.dto.SuggestionResponse;
 import com.bkplatform.dto.UpdateProductRequest;
+import com.bkplatform.exception.PreconditionFailedException;
 import com.bkplatform.model.Product;
 import com.bkplatform.model.User;
 import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.InventoryService;
+import com.bkplatform.service.ProductImportService;
 import com.bkplatform.service.ProductService;
+import com.bkplatform.service.RankingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -26,30 +50,172 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final InventoryService inventoryService;
+    private final HttpCachePolicy httpCachePolicy;
     private final UserRepository userRepository;
 
     /**
      * ✅ PUBLIC - Search products (NO TOKEN REQUIRED)
+     * facets=true adds category / shop / price-bucket / in-stock counts for the same filters
+     * images=true adds every image of each product (one extra query per page)
      */
     @GetMapping
-    public ResponseEntity<Page<Product>> search(
+    @StatementBudget(14)
+    public ResponseEntity<?> search(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
             @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "false") boolean images,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest request) {
 
-        Page<Product> products = productService.search(search, categoryId, sort, page, size);
-        return ResponseEntity.ok(products);
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .search(search)
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+
+        if (facets) {
+            ProductSearchResponse response = productService.searchWithFacets(criteria, sort, page, size);
+            Page<ProductListItemResponse> products = response.getProducts();
+            if (images) {
+                productService.attachImages(products.getContent());
+            }
+            return cachedList(request, products, response, ProductService.listETagOf(
+                    products.getContent(), products.getTotalElements(), response.getFacets(), imagesOf(products, images)));
+        }
+
+        Page<ProductListItemResponse> products = productService.search(criteria, sort, page, size);
+        if (images) {
+            productService.attachImages(products.getContent());
+        }
+        return cachedList(request, products, products, ProductService.listETagOf(
+                products.getContent(), products.getTotalElements(), imagesOf(products, images)));
+    }
+
+    /**
+     * ✅ PUBLIC - Typeahead suggestions for the search box (in-memory, accent-insensitive)
+     */
+    @GetMapping("/suggest")
+    @StatementBudget(3)
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (query.length() > 100) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(productService.suggest(query, Math.min(limit, 20)));
+    }
+
+    /**
+     * ✅ PUBLIC - Top products by ranking (bestseller | top_rated), served from the in-memory ranking
+     */
+    @GetMapping("/top")
+    @StatementBudget(10)
+    public ResponseEntity<List<ProductListItemResponse>> top(
+            @RequestParam(defaultValue = "bestseller") String ranking,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+
+        RankingService.Ranking type = switch (ranking.toLowerCase()) {
+            case "bestseller" -> RankingService.Ranking.BESTSELLER;
+            case "top_rated" -> RankingService.Ranking.TOP_RATED;
+            default -> throw new IllegalArgumentException("Unknown ranking: " + ranking);
+        };
+
+        List<ProductListItemResponse> products = productService.getTopProducts(type, categoryId, Math.min(limit, 50));
+        String etag = ProductService.listETagOf(products, products.size());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(httpCachePolicy.ranking()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(httpCachePolicy.ranking()).body(products);
+    }
+
+    /**
+     * ✅ PROTECTED - Bulk import into the caller's shop from a CSV or NDJSON file (multipart field "file").
+     * CSV header: name,price,description,stockQuantity,categoryId|categoryName. Returns per-row errors.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        ProductImportService.Format type = ProductImportService.Format.resolve(format, file.getOriginalFilename());
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importProducts(in, type, owner));
+        }
+    }
+
+    /**
+     * ✅ PROTECTED - Export the caller's catalog (format = csv | ndjson), streamed row by row
+     */
+    @GetMapping("/export")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "csv") String format) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        ProductImportService.Format type = ProductImportService.Format.resolve(format, null);
+        Long shopId = productImportService.getOwnShopId(owner);
+
+        StreamingResponseBody body = out -> productImportService.export(shopId, type, out);
+        String extension = type == ProductImportService.Format.CSV ? "csv" : "ndjson";
+
+        return ResponseEntity.ok()
+                .contentType(type == ProductImportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products-" + shopId + "." + extension + "\"")
+                .body(body);
+    }
+
+    /**
+     * ✅ PROTECTED - Bulk stock / price update for the caller's products, with a result per item
+     */
+    @PatchMapping("/inventory")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<InventoryUpdateResponse> updateInventory(
+            @AuthenticationPrincipal UserDetails principal,
+            @Valid @RequestBody InventoryUpdateRequest req) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(inventoryService.bulkUpdate(req, owner));
     }
 
     /**
      * ✅ PUBLIC - Get product by ID (NO TOKEN REQUIRED)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getById(@PathVariable Long id) {
+    @StatementBudget(10)
+    public ResponseEntity<Product> getById(@PathVariable Long id, WebRequest request) {
+        // ✅ Revalidation costs one projection query: the entity graph is loaded only when the tag changed
+        Optional<String> current = productService.currentETag(id);
+        if (current.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(current.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current.get())
+                    .cacheControl(httpCachePolicy.product())
+                    .build();
+        }
+
         return productService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(ProductService.etagOf(product))
+                        .cacheControl(httpCachePolicy.product())
+                        .body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -58,6 +224,7 @@ public class ProductController {
      * FIX: Better error handling và logging
      */
     @PostMapping
+    @StatementBudget(12)
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> create(
             @AuthenticationPrincipal UserDetails principal,
@@ -90,44 +257,26 @@ public class ProductController {
 
     /**
      * ✅ PROTECTED - Update product (TOKEN REQUIRED)
-     * FIX: Better error handling
+     * Stale If-Match (412), lost update (409) and ownership (403) are mapped by GlobalExceptionHandler
      */
     @PutMapping("/{id}")
+    @StatementBudget(14)
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> update(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateProductRequest req) {
 
-        try {
-            User owner = userRepository.findByUsername(principal.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        User owner = userRepository.findByUsername(principal.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-            return productService.update(id, req, owner)
-                    .map(product -> {
-                        log.info("Product updated: {} by user: {}", id, owner.getUsername());
-                        return ResponseEntity.ok(product);
-                    })
-                    .orElse(ResponseEntity.notFound().build());
-
-        } catch (SecurityException e) {
-            log.warn("Unauthorized product update attempt: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
-                    "status", "error",
-                    "message", "You don't have permission to update this product"
-            ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "status", "error",
-                    "message", e.getMessage()
-            ));
-        } catch (Exception e) {
-            log.error("Error updating product", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                    "status", "error",
-                    "message", "Failed to update product"
-            ));
-        }
+        return productService.update(id, req, owner, parseIfMatch(ifMatch))
+                .map(product -> {
+                    log.info("Product updated: {} by user: {}", id, owner.getUsername());
+                    return ResponseEntity.ok().eTag(ProductService.etagOf(product)).body(product);
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -135,6 +284,7 @@ public class ProductController {
      * FIX: Better error handling
      */
     @DeleteMapping("/{id}")
+    @StatementBudget(10)
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> delete(
             @AuthenticationPrincipal UserDetails principal,
@@ -170,4 +320,44 @@ public class ProductController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 304 when the client already has this listing, otherwise the body with its ETag
+     */
+    private ResponseEntity<?> cachedList(WebRequest request, Page<ProductListItemResponse> products, Object body, String etag) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(httpCachePolicy.productList()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(httpCachePolicy.productList())
+                .header("X-Total-Count", Long.toString(products.getTotalElements()))
+                .body(body);
+    }
+
+    private static Object imagesOf(Page<ProductListItemResponse> products, boolean images) {
+        return images ? products.getContent().stream().map(ProductListItemResponse::getImages).toList() : null;
+    }
+
+    /**
+     * Version expected by If-Match; null when absent or "*".
+     * Review / ranking aggregates in the tag may differ: they do not conflict with an owner edit
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match requires a strong ETag");
+        }
+        try {
+            // Tag is "{version}-{derived}" (see ProductService.etagOf); only the version guards writes
+            String value = tag.replace("\"", "");
+            int dash = value.indexOf('-');
+            return Long.valueOf(dash < 0 ? value : value.substring(0, dash));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match any version of this product");
+        }
+    }
+}
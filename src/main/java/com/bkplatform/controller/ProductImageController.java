@@ -0,0 +1,83 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.ProductImageResponse;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.ProductImageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products/{productId}/images")
+@RequiredArgsConstructor
+public class ProductImageController {
+    private final ProductImageService productImageService;
+    private final UserRepository userRepository;
+
+    /**
+     * ✅ PUBLIC - List images of a product
+     */
+    @GetMapping
+    public ResponseEntity<List<ProductImageResponse>> list(@PathVariable Long productId) {
+        return ResponseEntity.ok(productImageService.getImages(productId));
+    }
+
+    /**
+     * ✅ PROTECTED - Upload an image (multipart field "file"), JPEG / PNG / GIF
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ProductImageResponse> upload(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String description) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(productImageService.upload(productId, file, description, owner));
+    }
+
+    /**
+     * ✅ PROTECTED - Make an image the product's primary (listing) image
+     */
+    @PutMapping("/{imageId}/primary")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> setPrimary(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @PathVariable Long imageId) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        productImageService.setPrimary(productId, imageId, owner);
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Primary image updated"
+        ));
+    }
+
+    /**
+     * ✅ PROTECTED - Remove an image from the product
+     */
+    @DeleteMapping("/{imageId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> delete(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @PathVariable Long imageId) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        productImageService.delete(productId, imageId, owner);
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Image deleted"
+        ));
+    }
+}
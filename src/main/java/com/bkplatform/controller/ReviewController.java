@@ -0,0 +1,90 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.RatingSummaryResponse;
+import com.bkplatform.dto.ReviewRequest;
+import com.bkplatform.dto.ReviewResponse;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.ReviewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products/{productId}/reviews")
+@RequiredArgsConstructor
+public class ReviewController {
+    private final ReviewService reviewService;
+    private final UserRepository userRepository;
+
+    /**
+     * ✅ PUBLIC - List reviews of a product
+     */
+    @GetMapping
+    public ResponseEntity<Page<ReviewResponse>> list(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(reviewService.getReviews(productId, page, Math.min(size, 50)));
+    }
+
+    /**
+     * ✅ PUBLIC - Rating summary (average, count, histogram)
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<RatingSummaryResponse> summary(@PathVariable Long productId) {
+        return ResponseEntity.ok(reviewService.getRatingSummary(productId));
+    }
+
+    /**
+     * ✅ PROTECTED - Write a review
+     */
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ReviewResponse> create(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @Valid @RequestBody ReviewRequest req) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.status(HttpStatus.CREATED).body(reviewService.create(productId, req, user));
+    }
+
+    /**
+     * ✅ PROTECTED - Edit own review
+     */
+    @PutMapping("/{reviewId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ReviewResponse> update(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @PathVariable Long reviewId,
+            @Valid @RequestBody ReviewRequest req) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(reviewService.update(productId, reviewId, req, user));
+    }
+
+    /**
+     * ✅ PROTECTED - Delete own review
+     */
+    @DeleteMapping("/{reviewId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> delete(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long productId,
+            @PathVariable Long reviewId) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        reviewService.delete(productId, reviewId, user);
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Review deleted"
+        ));
+    }
+}
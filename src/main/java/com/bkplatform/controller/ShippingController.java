@@ -0,0 +1,46 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.ShippingQuoteRequest;
+import com.bkplatform.dto.ShippingQuoteResponse;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.ShippingQuoteService;
+import com.bkplatform.service.ShippingRateTable.ProviderRates;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shipping")
+@RequiredArgsConstructor
+public class ShippingController {
+
+    private final ShippingQuoteService shippingQuoteService;
+    private final UserRepository userRepository;
+
+    /**
+     * Providers with their per-zone rates
+     */
+    @GetMapping("/providers")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<ProviderRates>> providers() {
+        return ResponseEntity.ok(shippingQuoteService.getProviders());
+    }
+
+    /**
+     * Shipping cost of the current cart for every provider, cheapest first
+     */
+    @PostMapping("/quote")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ShippingQuoteResponse> quote(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestBody ShippingQuoteRequest request) {
+        User user = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(shippingQuoteService.quoteCart(user, request));
+    }
+}
@@ -0,0 +1,119 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.dto.FulfilmentQueueResponse;
+import com.bkplatform.dto.ProductListItemResponse;
+import com.bkplatform.dto.SalesDashboardResponse;
+import com.bkplatform.dto.SellerOrderFeedResponse;
+import com.bkplatform.dto.ShopOwnerSummaryResponse;
+import com.bkplatform.dto.ShopStorefrontResponse;
+import com.bkplatform.model.OrderStatus;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.UserRepository;
+import com.bkplatform.service.OrderService;
+import com.bkplatform.service.ProductService;
+import com.bkplatform.service.SalesRollupService;
+import com.bkplatform.service.ShopService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/shops")
+@RequiredArgsConstructor
+public class ShopController {
+    private final ShopService shopService;
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final SalesRollupService salesRollupService;
+    private final UserRepository userRepository;
+
+    /**
+     * ✅ PROTECTED - Owner's own shop with live product counts
+     */
+    @GetMapping("/me")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ShopOwnerSummaryResponse> mine(@AuthenticationPrincipal UserDetails principal) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(shopService.getOwnerSummary(owner));
+    }
+
+    /**
+     * ✅ PROTECTED - Orders ready to ship (paid, or cash on delivery), keyset-paginated by orderId
+     */
+    @GetMapping("/me/fulfilment")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FulfilmentQueueResponse> fulfilmentQueue(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(required = false) Long afterOrderId,
+            @RequestParam(defaultValue = "20") int size) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(orderService.getFulfilmentQueue(owner, afterOrderId, size));
+    }
+
+    /**
+     * ✅ PROTECTED - The shop's orders (own lines only), newest first, keyset-paginated by orderId
+     */
+    @GetMapping("/me/orders")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SellerOrderFeedResponse> orders(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long beforeOrderId,
+            @RequestParam(defaultValue = "20") int size) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(orderService.getSellerOrders(owner, status, beforeOrderId, size));
+    }
+
+    /**
+     * ✅ PROTECTED - Sales dashboard (daily revenue/units/orders + top products), read from daily rollups.
+     * Defaults to the last 30 days.
+     */
+    @GetMapping("/me/analytics")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SalesDashboardResponse> analytics(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int top) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        return ResponseEntity.ok(salesRollupService.getDashboard(owner, from, to, top));
+    }
+
+    /**
+     * ✅ PROTECTED - Hand an order over to the carrier
+     */
+    @PostMapping("/me/orders/{orderId}/ship")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> ship(@AuthenticationPrincipal UserDetails principal, @PathVariable Long orderId) {
+        User owner = userRepository.findByUsername(principal.getUsername()).orElseThrow();
+        orderService.markShipped(orderId, owner);
+        return ResponseEntity.ok(Map.of("status", "success", "message", "Order marked as shipped"));
+    }
+
+    /**
+     * ✅ PUBLIC - Storefront (cached shop summary + first page of products)
+     */
+    @GetMapping("/{shopId}")
+    public ResponseEntity<ShopStorefrontResponse> storefront(@PathVariable Long shopId) {
+        return ResponseEntity.ok(shopService.getStorefront(shopId));
+    }
+
+    /**
+     * ✅ PUBLIC - Further pages of a shop's products
+     */
+    @GetMapping("/{shopId}/products")
+    public ResponseEntity<Page<ProductListItemResponse>> products(
+            @PathVariable Long shopId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+        return ResponseEntity.ok(productService.getProductsByShop(shopId, page, Math.min(size, 100)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.bkplatform.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AddressRequest {
+    @NotBlank @Size(max = 500)
+    private String addressDetail;
+    @Pattern(regexp = "^(0|\\+84)[0-9]{9,10}$", message = "Invalid phone number")
+    private String phoneNo;
+    @NotNull
+    private Long wardId;
+}
@@ -0,0 +1,21 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressResponse {
+    private Long addressId;
+    private String addressDetail;
+    private String phoneNo;
+    private Long wardId;
+    private String wardName;
+    private Long districtId;
+    private String districtName;
+    private Long provinceId;
+    private String provinceName;
+    private String fullAddress;
+}
@@ -0,0 +1,19 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFacetResponse {
+    private Long categoryId;
+    private String categoryName;
+    private Long productCount;
+    // Price range of the matching products (null when the category has none)
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,15 @@
+package com.bkplatform.dto;
+
+import com.bkplatform.model.PaymentMethod;
+import lombok.Data;
+
+/**
+ * Optional checkout options. Without addressId the order is placed without a shipment (legacy behaviour);
+ * without providerId the cheapest provider for the route is used. Payment defaults to cash on delivery.
+ */
+@Data
+public class CheckoutRequest {
+    private Long addressId;
+    private Long providerId;
+    private PaymentMethod paymentMethod;
+}
@@ -2,8 +2,14 @@ package com.bkplatform.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CheckoutResponse {
     private Long orderId;
     private String status = "OK";
+    private BigDecimal shippingCost;
+    private String shippingProvider;
+    private String paymentMethod;
+    private String paymentStatus;
 }
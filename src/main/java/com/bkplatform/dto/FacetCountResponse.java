@@ -0,0 +1,14 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountResponse {
+    private Long id;
+    private String name;
+    private long count;
+}
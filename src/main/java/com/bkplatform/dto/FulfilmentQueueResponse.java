@@ -0,0 +1,32 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FulfilmentQueueResponse {
+
+    private List<Entry> orders;
+    // afterOrderId for the next page; null on the last page
+    private Long nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Long orderId;
+        private Instant orderDate;
+        private String status;
+        private String paymentMethod;
+        // Quantity and value of this shop's lines only
+        private Long itemCount;
+        private BigDecimal subtotal;
+    }
+}
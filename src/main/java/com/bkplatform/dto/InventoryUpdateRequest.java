@@ -0,0 +1,29 @@
+package com.bkplatform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class InventoryUpdateRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@Valid Item> items;
+
+    /**
+     * One product; null fields are left unchanged
+     */
+    @Data
+    public static class Item {
+        @NotNull private Long productId;
+        @PositiveOrZero private Integer stockQuantity;
+        @Positive private BigDecimal price;
+    }
+}
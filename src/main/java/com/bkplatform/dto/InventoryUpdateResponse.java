@@ -0,0 +1,27 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryUpdateResponse {
+    private int updated;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long productId;
+        // updated | not_found | forbidden | invalid
+        private String status;
+        private String message;
+    }
+}
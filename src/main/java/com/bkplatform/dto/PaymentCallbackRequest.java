@@ -0,0 +1,17 @@
+package com.bkplatform.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a payment provider callback (signed with X-Payment-Signature)
+ */
+@Data
+public class PaymentCallbackRequest {
+    private Long transactionId;
+    private String reference;
+    // "succeeded" or "failed"
+    private String status;
+    private BigDecimal amount;
+}
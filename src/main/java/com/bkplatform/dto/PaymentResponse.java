@@ -0,0 +1,21 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResponse {
+    private Long transactionId;
+    private Long orderId;
+    private String method;
+    private String status;
+    private BigDecimal totalCost;
+    private BigDecimal taxAmount;
+    private Instant transactionDate;
+}
@@ -0,0 +1,18 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucketResponse {
+    // Inclusive lower bound (null = open)
+    private BigDecimal from;
+    // Exclusive upper bound (null = open)
+    private BigDecimal to;
+    private long count;
+}
@@ -0,0 +1,15 @@
+package com.bkplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductFacetsResponse {
+    private long total;
+    private long inStockCount;
+    private List<FacetCountResponse> categories = new ArrayList<>();
+    private List<FacetCountResponse> shops = new ArrayList<>();
+    private List<PriceBucketResponse> priceBuckets = new ArrayList<>();
+}
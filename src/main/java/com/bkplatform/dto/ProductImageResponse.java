@@ -0,0 +1,17 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageResponse {
+    private Long imageId;
+    private Long productId;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private String imageType;
+    private String description;
+}
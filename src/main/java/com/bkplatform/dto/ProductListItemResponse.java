@@ -0,0 +1,23 @@
+package com.bkplatform.dto;
+
+import com.bkplatform.model.Product;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A product in a listing: the product's own fields plus its thumbnail and, when asked for, every image.
+ * Unwrapped, so the JSON keeps the shape of a plain product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListItemResponse {
+    @JsonUnwrapped
+    private Product product;
+    private String thumbnailUrl;
+    private List<ProductImageResponse> images;
+}
@@ -0,0 +1,23 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private BigDecimal averageRating;
+    private Integer reviewCount;
+    private Integer unitsSold;
+    private Long categoryId;
+    private String categoryName;
+    private String thumbnailUrl;
+}
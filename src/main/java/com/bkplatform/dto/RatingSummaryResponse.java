@@ -0,0 +1,18 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryResponse {
+    private Integer reviewCount;
+    private BigDecimal averageRating;
+    // rating (1..5) -> number of reviews
+    private Map<Integer, Integer> histogram;
+}
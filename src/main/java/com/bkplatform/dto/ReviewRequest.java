@@ -0,0 +1,15 @@
+package com.bkplatform.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ReviewRequest {
+    @NotNull @Min(1) @Max(5)
+    private Integer rating;
+    @Size(max = 2000)
+    private String content;
+}
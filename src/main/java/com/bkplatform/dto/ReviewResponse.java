@@ -0,0 +1,21 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResponse {
+    private Long reviewId;
+    private Long productId;
+    private Long userId;
+    private String username;
+    private String fullName;
+    private Integer rating;
+    private String content;
+    private Instant reviewDate;
+}
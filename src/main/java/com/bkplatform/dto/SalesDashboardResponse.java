@@ -0,0 +1,44 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDashboardResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private long orderCount;
+    private long unitsSold;
+    private BigDecimal revenue;
+    // One entry per day in the range, zero-filled
+    private List<Day> daily;
+    private List<TopProduct> topProducts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private long orderCount;
+        private long unitsSold;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopProduct {
+        private Long productId;
+        private String name;
+        private long unitsSold;
+        private BigDecimal revenue;
+    }
+}
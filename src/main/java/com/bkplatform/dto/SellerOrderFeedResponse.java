@@ -0,0 +1,42 @@
+package com.bkplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrderFeedResponse {
+
+    private List<Entry> orders;
+    // beforeOrderId for the next (older) page; null on the last page
+    private Long nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Long orderId;
+        private Instant orderDate;
+        private String status;
+        private String buyerName;
+        private Long itemCount;
+        private BigDecimal subtotal;
+        private List<Line> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal price;
+    }
+}
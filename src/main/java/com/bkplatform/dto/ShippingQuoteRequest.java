@@ -0,0 +1,12 @@
+package com.bkplatform.dto;
+
+import lombok.Data;
+
+/**
+ * Receiver location: a saved address of the user, or just a ward (e.g. before the address is saved)
+ */
+@Data
+public class ShippingQuoteRequest {
+    private Long addressId;
+    private Long wardId;
+}
@@ -0,0 +1,40 @@
+package com.bkplatform.dto;
+
+import com.bkplatform.model.ShippingZone;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShippingQuoteResponse {
+
+    // One parcel per shop in the cart
+    private List<Parcel> parcels;
+    // Cheapest first; providers without a rate for every parcel's zone are left out
+    private List<ProviderQuote> quotes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Parcel {
+        private Long shopId;
+        private String shopName;
+        private ShippingZone zone;
+        private int itemCount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProviderQuote {
+        private Long providerId;
+        private String providerName;
+        private BigDecimal shippingCost;
+        private int estimatedDays;
+    }
+}
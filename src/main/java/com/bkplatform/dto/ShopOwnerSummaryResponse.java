@@ -0,0 +1,13 @@
+package com.bkplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class ShopOwnerSummaryResponse {
+    private Long shopId;
+    private String name;
+    private long productCount;
+    private long inStockCount;
+    private long outOfStockCount;
+    private RatingSummaryResponse rating;
+}
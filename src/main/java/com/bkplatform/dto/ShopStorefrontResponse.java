@@ -0,0 +1,20 @@
+package com.bkplatform.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ShopStorefrontResponse {
+    private Long shopId;
+    private String name;
+    private Long ownerId;
+    private String ownerName;
+    private long productCount;
+    private RatingSummaryResponse rating;
+    // First page of products, newest first
+    private List<ProductSummaryResponse> products;
+    private int pageSize;
+    private Instant generatedAt;
+}
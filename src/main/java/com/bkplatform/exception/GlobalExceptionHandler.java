@@ -1,6 +1,7 @@
 package com.bkplatform.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -61,6 +63,22 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Handle unmapped paths (e.g. /actuator on the public port): 404, not an unexpected error
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNoResourceFoundException(NoResourceFoundException ex) {
+        log.debug("No handler for /{}", ex.getResourcePath());
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error("Not Found")
+                .message("No endpoint " + ex.getHttpMethod() + " /" + ex.getResourcePath())
+                .build();
+    }
+
     /**
      * Handle insufficient stock
      */
@@ -125,6 +143,38 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Handle stale If-Match versions
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailedException(PreconditionFailedException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error("Precondition Failed")
+                .message(ex.getMessage())
+                .build();
+    }
+
+    /**
+     * Handle concurrent modification (optimistic lock lost at commit)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message("The resource was modified concurrently, reload and try again")
+                .build();
+    }
+
     /**
      * Handle authentication errors
      */
@@ -189,6 +239,22 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Strict query-count mode (dev only): the message names the endpoint, the count and the budget
+     */
+    @ExceptionHandler(StatementBudgetExceededException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleStatementBudgetExceededException(StatementBudgetExceededException ex) {
+        log.error("Statement budget exceeded", ex);
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .error("Statement Budget Exceeded")
+                .message(ex.getMessage())
+                .build();
+    }
+
     /**
      * Handle all other exceptions
      */
@@ -0,0 +1,10 @@
+package com.bkplatform.exception;
+
+/**
+ * Thrown in strict query-count mode when a request runs more SQL statements than its @StatementBudget
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
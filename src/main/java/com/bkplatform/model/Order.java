@@ -14,7 +14,15 @@ public class Order {
     @ManyToOne(optional=false) @JoinColumn(name="user_id")
     private User user;
     @Column(nullable=false)
+    @Builder.Default
     private Instant orderDate = Instant.now();
     @Column(nullable=false, precision=12, scale=2)
     private BigDecimal orderCost;
+    // Written on insert, then only by OrderRepository.transitionStatus (conditional UPDATE)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable=false, length=20, updatable = false)
+    @Builder.Default
+    private OrderStatus status = OrderStatus.PLACED;
+    @Column(insertable = false, updatable = false)
+    private Instant statusUpdatedAt;
 }
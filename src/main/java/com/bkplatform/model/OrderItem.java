@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity @Table(name="order_items")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
@@ -19,4 +20,10 @@ public class OrderItem {
     private Integer quantity;
     @Column(nullable=false, precision=12, scale=2)
     private BigDecimal priceSnapshot;
+    // Seller of the line, copied from the product at checkout (written by OrderService's batch insert)
+    @Column(nullable=false, updatable = false)
+    private Long shopId;
+    // Set when the line's shop hands its part of the order to the carrier (OrderRepository.markShopShipped)
+    @Column(updatable = false)
+    private Instant shippedAt;
 }
@@ -0,0 +1,18 @@
+package com.bkplatform.model;
+
+/**
+ * Order lifecycle. PLACED → PAID → SHIPPED → DELIVERED; cash-on-delivery orders ship from PLACED;
+ * PLACED | PAID → CANCELLED. Changes go through OrderRepository.transitionStatus.
+ */
+public enum OrderStatus {
+    PLACED, PAID, SHIPPED, DELIVERED, CANCELLED;
+
+    public boolean canMoveTo(OrderStatus next) {
+        return switch (this) {
+            case PLACED -> next == PAID || next == SHIPPED || next == CANCELLED;
+            case PAID -> next == SHIPPED || next == CANCELLED;
+            case SHIPPED -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+}
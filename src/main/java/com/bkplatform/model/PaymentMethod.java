@@ -0,0 +1,12 @@
+package com.bkplatform.model;
+
+public enum PaymentMethod {
+    COD, BANK_TRANSFER, CARD, EWALLET;
+
+    /**
+     * Cash on delivery is settled by the courier, everything else through the payment gateway
+     */
+    public boolean isOnline() {
+        return this != COD;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bkplatform.model;
+
+/**
+ * Payment lifecycle. Stored lowercase in transactions.transaction_status ("pending", ...).
+ * PENDING → PROCESSING → PAID | FAILED, FAILED → PENDING (retry), PENDING | FAILED → CANCELLED,
+ * PAID → REFUNDING → REFUNDED (REFUNDING until the gateway confirms the refund)
+ */
+public enum PaymentStatus {
+    PENDING, PROCESSING, PAID, FAILED, CANCELLED, REFUNDING, REFUNDED;
+
+    public boolean canMoveTo(PaymentStatus next) {
+        return switch (this) {
+            case PENDING -> next == PROCESSING || next == CANCELLED;
+            case PROCESSING -> next == PAID || next == FAILED;
+            case FAILED -> next == PENDING || next == CANCELLED;
+            case PAID -> next == REFUNDING;
+            case REFUNDING -> next == REFUNDED;
+            case CANCELLED, REFUNDED -> false;
+        };
+    }
+
+    public String dbValue() {
+        return name().toLowerCase();
+    }
+
+    public static PaymentStatus fromDbValue(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
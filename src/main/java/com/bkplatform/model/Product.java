@@ -32,4 +32,45 @@ public class Product {
 
     @ManyToOne @JoinColumn(name="category_id")
     private Category category;
+
+    // ✅ Optimistic lock: concurrent writes fail at commit instead of overwriting each other
+    @Version
+    @Column(nullable=false)
+    private Long version;
+
+    // Rating aggregates: written only by ReviewService via ProductRepository.applyRatingDelta
+    @Column(insertable=false, updatable=false)
+    private Integer reviewCount;
+
+    @Column(insertable=false, updatable=false)
+    private Integer ratingSum;
+
+    @Column(name="rating_1_count", insertable=false, updatable=false)
+    private Integer rating1Count;
+
+    @Column(name="rating_2_count", insertable=false, updatable=false)
+    private Integer rating2Count;
+
+    @Column(name="rating_3_count", insertable=false, updatable=false)
+    private Integer rating3Count;
+
+    @Column(name="rating_4_count", insertable=false, updatable=false)
+    private Integer rating4Count;
+
+    @Column(name="rating_5_count", insertable=false, updatable=false)
+    private Integer rating5Count;
+
+    @Column(precision=3, scale=2, insertable=false, updatable=false)
+    private BigDecimal averageRating;
+
+    // Ranking columns: copied from the product_ranking view by RankingService
+    @Column(insertable=false, updatable=false)
+    private Integer unitsSold;
+
+    @Column(precision=4, scale=3, insertable=false, updatable=false)
+    private BigDecimal ratingScore;
+
+    // Denormalized primary image: maintained by ProductImageService via ProductRepository
+    @Column(name="primary_image_id", insertable=false, updatable=false)
+    private Long primaryImageId;
 }
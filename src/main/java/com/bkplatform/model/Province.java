@@ -2,8 +2,14 @@ package com.bkplatform.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity @Table(name="province")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reference.province")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Province {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,2 @@
+package com.bkplatform.model;
+public enum ShippingZone { SAME_DISTRICT, SAME_PROVINCE, INTER_PROVINCE }
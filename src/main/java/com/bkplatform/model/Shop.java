@@ -12,8 +12,24 @@ public class Shop {
     private User owner;
     @Column(nullable=false, length=100)
     private String name;
-    @Column(precision = 2, scale = 1)
+    @Column(precision = 2, scale = 1, insertable = false, updatable = false)
     private java.math.BigDecimal averageRating;
     @ManyToOne @JoinColumn(name="address_id")
     private AddressBook address;
+
+    // Rating aggregates: written only by ReviewService via ShopRepository.applyRatingDelta
+    @Column(insertable = false, updatable = false)
+    private Integer reviewCount;
+    @Column(insertable = false, updatable = false)
+    private Integer ratingSum;
+    @Column(name="rating_1_count", insertable = false, updatable = false)
+    private Integer rating1Count;
+    @Column(name="rating_2_count", insertable = false, updatable = false)
+    private Integer rating2Count;
+    @Column(name="rating_3_count", insertable = false, updatable = false)
+    private Integer rating3Count;
+    @Column(name="rating_4_count", insertable = false, updatable = false)
+    private Integer rating4Count;
+    @Column(name="rating_5_count", insertable = false, updatable = false)
+    private Integer rating5Count;
 }
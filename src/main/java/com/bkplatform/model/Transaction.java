@@ -13,14 +13,23 @@ public class Transaction {
     private Long transactionId;
     @OneToOne @JoinColumn(name="order_id", unique = true, nullable = false)
     private Order order;
+    @Enumerated(EnumType.STRING)
     @Column(nullable=false, length=50)
-    private String transactionMethod;
-    @Column(nullable=false, length=30)
-    private String transactionStatus = "pending";
+    private PaymentMethod transactionMethod;
+    // Status changes go through TransactionRepository.transition (conditional UPDATE), never through this setter
+    @Convert(converter = PaymentStatusConverter.class)
+    @Column(nullable=false, length=30, updatable = false)
+    @Builder.Default
+    private PaymentStatus transactionStatus = PaymentStatus.PENDING;
     @Column(nullable=false, precision=12, scale=2)
     private BigDecimal totalCost;
     @Column(precision=12, scale=2)
+    @Builder.Default
     private BigDecimal taxAmount = BigDecimal.ZERO;
     @Column(nullable=false)
+    @Builder.Default
     private Instant transactionDate = Instant.now();
+    // Id of the charge at the payment provider, set once the gateway accepted it
+    @Column(length=100, updatable = false)
+    private String gatewayReference;
 }
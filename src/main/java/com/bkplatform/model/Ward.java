@@ -2,8 +2,14 @@ package com.bkplatform.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity @Table(name="ward")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reference.ward")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Ward {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
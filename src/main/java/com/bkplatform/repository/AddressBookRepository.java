@@ -0,0 +1,13 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.AddressBook;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AddressBookRepository extends JpaRepository<AddressBook, Long> {
+
+    List<AddressBook> findByUserUserIdOrderByAddressIdAsc(Long userId);
+
+    long countByUserUserId(Long userId);
+}
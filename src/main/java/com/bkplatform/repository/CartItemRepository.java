@@ -5,6 +5,9 @@ import com.bkplatform.model.Cart;
 import com.bkplatform.model.CartItem;
 import com.bkplatform.model.CartItemId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -14,7 +17,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, CartItemId>
     List<CartItem> findByCart(Cart cart);
 
     // ✅ Additional useful methods
-    void deleteByCart(Cart cart);
+    // One DELETE; a derived deleteBy would load every line and delete them one by one
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart = :cart")
+    void deleteByCart(@Param("cart") Cart cart);
 
     long countByCart(Cart cart);
 }
@@ -1,13 +1,43 @@
 package com.bkplatform.repository;
 
+import com.bkplatform.dto.CategoryFacetResponse;
 import com.bkplatform.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    Optional<Category> findByName(String name);
+    // ✅ FIX: Derived queries must use the entity property (categoryName), not "name"
+    Optional<Category> findByCategoryName(String categoryName);
 
-    boolean existsByName(String name);
-}
\ No newline at end of file
+    boolean existsByCategoryName(String categoryName);
+
+    /**
+     * Every category with its product count and price range, in one grouped query
+     */
+    @Query("""
+            select new com.bkplatform.dto.CategoryFacetResponse(
+                c.categoryId, c.categoryName, count(p.productId), min(p.price), max(p.price))
+            from Category c left join Product p on p.category = c
+            group by c.categoryId, c.categoryName
+            order by c.categoryName
+            """)
+    List<CategoryFacetResponse> findAllWithFacets();
+
+    /**
+     * Same as findAllWithFacets, restricted to products matching the search pattern
+     */
+    @Query("""
+            select new com.bkplatform.dto.CategoryFacetResponse(
+                c.categoryId, c.categoryName, count(p.productId), min(p.price), max(p.price))
+            from Category c left join Product p on p.category = c
+                and (lower(p.name) like :pattern or lower(p.description) like :pattern)
+            group by c.categoryId, c.categoryName
+            order by c.categoryName
+            """)
+    List<CategoryFacetResponse> findAllWithFacets(@Param("pattern") String pattern);
+}
@@ -0,0 +1,15 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.District;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface DistrictRepository extends JpaRepository<District, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<District> findByProvinceProvinceIdOrderByDistrictNameAsc(Long provinceId);
+}
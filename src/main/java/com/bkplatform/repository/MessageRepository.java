@@ -1,8 +1,19 @@
 package com.bkplatform.repository;
 import com.bkplatform.model.Message;
 import com.bkplatform.model.Conversation;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
+import java.util.stream.Stream;
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByConversationOrderByCreatedAtAsc(Conversation c);
+
+    // Cursor-backed; must be consumed inside a transaction (see StreamingJsonWriter).
+    // Sender and conversation come in the same row: one statement however long the history is
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @EntityGraph(attributePaths = {"sender", "conversation", "conversation.user1", "conversation.user2"})
+    Stream<Message> streamByConversationOrderByCreatedAtAsc(Conversation c);
 }
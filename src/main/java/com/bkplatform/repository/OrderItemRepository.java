@@ -2,4 +2,65 @@ package com.bkplatform.repository;
 import com.bkplatform.model.OrderItem;
 import com.bkplatform.model.OrderItemId;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {}
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
+    List<OrderItem> findByOrderOrderId(Long orderId);
+
+    /**
+     * Newest-first keyset page of the shop's orders (its own lines only), optionally filtered by status.
+     * Walks idx_order_items_shop_order backwards from beforeOrderId.
+     */
+    @Query(value = """
+            SELECT oi.order_id AS orderId, o.order_date AS orderDate, o.status AS status,
+                   u.full_name AS buyerName,
+                   SUM(oi.quantity) AS itemCount, SUM(oi.quantity * oi.price_snapshot) AS subtotal
+            FROM order_items oi
+            JOIN orders o ON o.order_id = oi.order_id
+            JOIN users u ON u.user_id = o.user_id
+            WHERE oi.shop_id = :shopId
+              AND oi.order_id < :beforeOrderId
+              AND (CAST(:status AS VARCHAR) IS NULL OR o.status = :status)
+            GROUP BY oi.order_id, o.order_date, o.status, u.full_name
+            ORDER BY oi.order_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SellerOrderRow> findSellerOrders(@Param("shopId") Long shopId,
+                                          @Param("beforeOrderId") long beforeOrderId,
+                                          @Param("status") String status,
+                                          @Param("limit") int limit);
+
+    /**
+     * The shop's lines of a page of orders, in one query
+     */
+    @Query(value = """
+            SELECT oi.order_id AS orderId, oi.product_id AS productId, p.name AS productName,
+                   oi.quantity AS quantity, oi.price_snapshot AS price
+            FROM order_items oi
+            JOIN products p ON p.product_id = oi.product_id
+            WHERE oi.shop_id = :shopId AND oi.order_id IN (:orderIds)
+            ORDER BY oi.order_id DESC, oi.product_id
+            """, nativeQuery = true)
+    List<SellerLineRow> findSellerLines(@Param("shopId") Long shopId, @Param("orderIds") Collection<Long> orderIds);
+
+    interface SellerOrderRow {
+        Long getOrderId();
+        Instant getOrderDate();
+        String getStatus();
+        String getBuyerName();
+        Long getItemCount();
+        BigDecimal getSubtotal();
+    }
+
+    interface SellerLineRow {
+        Long getOrderId();
+        Long getProductId();
+        String getProductName();
+        Integer getQuantity();
+        BigDecimal getPrice();
+    }
+}
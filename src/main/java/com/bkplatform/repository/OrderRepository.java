@@ -1,8 +1,99 @@
 package com.bkplatform.repository;
 import com.bkplatform.model.Order;
 import com.bkplatform.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserOrderByOrderDateDesc(User user);
+
+    // Cursor-backed; must be consumed inside a transaction (see StreamingJsonWriter).
+    // The buyer comes in the same row, so clearing the persistence context never re-loads it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @EntityGraph(attributePaths = "user")
+    Stream<Order> streamByUserOrderByOrderDateDesc(User user);
+
+    // Row lock so the shops of one order ship (and the buyer cancels) one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
+
+    /**
+     * ✅ Guarded transition: succeeds only while the order is still in the expected status,
+     * so concurrent cancel/ship/payment callbacks cannot both win. Returns 0 otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            UPDATE orders SET status = :to, status_updated_at = CURRENT_TIMESTAMP
+            WHERE order_id = :orderId AND status = :from
+            """, nativeQuery = true)
+    int transitionStatus(@Param("orderId") Long orderId, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Keyset page of orders ready to ship that contain unshipped products of the shop:
+     * paid orders, and cash-on-delivery orders as soon as they are placed.
+     * Only the PLACED/PAID partial indexes are scanned.
+     */
+    @Query(value = """
+            SELECT o.order_id AS orderId, o.order_date AS orderDate, o.status AS status,
+                   t.transaction_method AS paymentMethod,
+                   SUM(oi.quantity) AS itemCount, SUM(oi.quantity * oi.price_snapshot) AS subtotal
+            FROM orders o
+            JOIN order_items oi ON oi.order_id = o.order_id AND oi.shop_id = :shopId AND oi.shipped_at IS NULL
+            LEFT JOIN transactions t ON t.order_id = o.order_id
+            WHERE o.order_id > :afterOrderId
+              AND (o.status = 'PAID' OR (o.status = 'PLACED' AND t.transaction_method = 'COD'))
+            GROUP BY o.order_id, o.order_date, o.status, t.transaction_method
+            ORDER BY o.order_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<FulfilmentRow> findFulfilmentQueue(@Param("shopId") Long shopId,
+                                            @Param("afterOrderId") long afterOrderId,
+                                            @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM order_items WHERE order_id = :orderId AND shop_id = :shopId)
+            """, nativeQuery = true)
+    boolean containsShopProducts(@Param("orderId") Long orderId, @Param("shopId") Long shopId);
+
+    /**
+     * Marks the shop's lines of the order shipped; 0 when they already were
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE order_items SET shipped_at = CURRENT_TIMESTAMP
+            WHERE order_id = :orderId AND shop_id = :shopId AND shipped_at IS NULL
+            """, nativeQuery = true)
+    int markShopShipped(@Param("orderId") Long orderId, @Param("shopId") Long shopId);
+
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM order_items WHERE order_id = :orderId AND shipped_at IS NOT NULL)
+            """, nativeQuery = true)
+    boolean anyShopShipped(@Param("orderId") Long orderId);
+
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM order_items WHERE order_id = :orderId AND shipped_at IS NULL)
+            """, nativeQuery = true)
+    boolean hasUnshippedItems(@Param("orderId") Long orderId);
+
+    interface FulfilmentRow {
+        Long getOrderId();
+        Instant getOrderDate();
+        String getStatus();
+        String getPaymentMethod();
+        Long getItemCount();
+        BigDecimal getSubtotal();
+    }
 }
@@ -0,0 +1,135 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.dto.FacetCountResponse;
+import com.bkplatform.dto.PriceBucketResponse;
+import com.bkplatform.dto.ProductFacetsResponse;
+import com.bkplatform.dto.ProductSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Facet aggregation over the filtered product set.
+ * All facets come from one statement: the filtered rows are scanned once (CTE) and
+ * grouped per facet with UNION ALL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductFacetRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Upper bounds of the price histogram buckets (VND), ascending
+    @Value("${app.search.price-buckets:100000,200000,500000,1000000,5000000}")
+    private BigDecimal[] priceBounds;
+
+    @Value("${app.search.shop-facet-limit:20}")
+    private int shopFacetLimit;
+
+    public ProductFacetsResponse computeFacets(ProductSearchCriteria criteria) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhere(criteria, params);
+        params.addValue("shopLimit", shopFacetLimit);
+
+        // Bounds come from configuration, never from the request
+        String bounds = Arrays.stream(priceBounds)
+                .map(BigDecimal::toPlainString)
+                .collect(Collectors.joining(","));
+
+        String sql = """
+                WITH filtered AS (
+                    SELECT category_id, shop_id, price, stock_quantity
+                    FROM products
+                    %s
+                )
+                SELECT 'category' AS facet, CAST(f.category_id AS BIGINT) AS key_id, c.category_name AS name,
+                       CAST(NULL AS INT) AS bucket, COUNT(*) AS cnt
+                FROM filtered f LEFT JOIN categories c ON c.category_id = f.category_id
+                GROUP BY f.category_id, c.category_name
+                UNION ALL
+                SELECT 'shop', top_shops.shop_id, s.name, NULL, top_shops.cnt
+                FROM (
+                    SELECT shop_id, COUNT(*) AS cnt FROM filtered
+                    GROUP BY shop_id ORDER BY cnt DESC LIMIT :shopLimit
+                ) top_shops JOIN shop s ON s.shop_id = top_shops.shop_id
+                UNION ALL
+                SELECT 'price', NULL, NULL, width_bucket(price, CAST(ARRAY[%s] AS NUMERIC[])), COUNT(*)
+                FROM filtered
+                GROUP BY 4
+                UNION ALL
+                SELECT 'in_stock', NULL, NULL, NULL, COUNT(*)
+                FROM filtered WHERE stock_quantity > 0
+                """.formatted(where, bounds);
+
+        ProductFacetsResponse facets = new ProductFacetsResponse();
+        long[] bucketCounts = new long[priceBounds.length + 1];
+
+        jdbcTemplate.query(sql, params, rs -> {
+            String facet = rs.getString("facet");
+            long count = rs.getLong("cnt");
+            switch (facet) {
+                case "category" -> {
+                    facets.getCategories().add(new FacetCountResponse(
+                            rs.getObject("key_id", Long.class), rs.getString("name"), count));
+                    facets.setTotal(facets.getTotal() + count);
+                }
+                case "shop" -> facets.getShops().add(new FacetCountResponse(
+                        rs.getObject("key_id", Long.class), rs.getString("name"), count));
+                case "price" -> bucketCounts[rs.getInt("bucket")] = count;
+                case "in_stock" -> facets.setInStockCount(count);
+                default -> { }
+            }
+        });
+
+        facets.getCategories().sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        facets.setPriceBuckets(toBuckets(bucketCounts));
+        return facets;
+    }
+
+    private List<PriceBucketResponse> toBuckets(long[] counts) {
+        List<PriceBucketResponse> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal from = i == 0 ? null : priceBounds[i - 1];
+            BigDecimal to = i == priceBounds.length ? null : priceBounds[i];
+            buckets.add(new PriceBucketResponse(from, to, counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Mirrors ProductService's Specification so hits and facets describe the same set
+     */
+    private String buildWhere(ProductSearchCriteria criteria, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (criteria.getSearch() != null && !criteria.getSearch().trim().isEmpty()) {
+            conditions.add("(LOWER(name) LIKE :pattern OR LOWER(description) LIKE :pattern)");
+            params.addValue("pattern", "%" + criteria.getSearch().toLowerCase().trim() + "%");
+        }
+        if (criteria.getCategoryId() != null) {
+            conditions.add("category_id = :categoryId");
+            params.addValue("categoryId", criteria.getCategoryId());
+        }
+        if (criteria.getMinPrice() != null) {
+            conditions.add("price >= :minPrice");
+            params.addValue("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            conditions.add("price <= :maxPrice");
+            params.addValue("maxPrice", criteria.getMaxPrice());
+        }
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            conditions.add("stock_quantity > 0");
+        }
+
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+    }
+}
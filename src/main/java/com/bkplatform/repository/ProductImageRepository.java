@@ -0,0 +1,43 @@
+package com.bkplatform.repository;
+import com.bkplatform.model.ProductImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+    List<ProductImage> findByProductProductIdOrderByImageIdAsc(Long productId);
+
+    long countByProductProductId(Long productId);
+
+    /**
+     * All images of a page of products in one IN query; the owning products are not loaded
+     */
+    @Query("""
+            select i.imageId as imageId, i.product.productId as productId, i.imageUrl as imageUrl,
+                   i.imageType as imageType, i.description as description
+            from ProductImage i
+            where i.product.productId in :productIds
+            order by i.product.productId, i.imageId
+            """)
+    List<ImageRow> findRowsByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * URLs of the given images (primary images of a page), looked up by primary key
+     */
+    @Query("select i.imageId as imageId, i.imageUrl as imageUrl from ProductImage i where i.imageId in :imageIds")
+    List<ImageUrl> findUrlsByImageIds(@Param("imageIds") Collection<Long> imageIds);
+
+    interface ImageRow {
+        Long getImageId();
+        Long getProductId();
+        String getImageUrl();
+        String getImageType();
+        String getDescription();
+    }
+
+    interface ImageUrl {
+        Long getImageId();
+        String getImageUrl();
+    }
+}
@@ -1,8 +1,124 @@
 package com.bkplatform.repository;
 import com.bkplatform.model.Product;
 import com.bkplatform.model.Shop;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     long countByShop(Shop shop);
+
+    // Search pages: shop, owner and category joined in so page size does not add statements
+    @Override
+    @EntityGraph(attributePaths = {"category", "shop", "shop.owner"})
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    // No count query and categories joined in: one statement for a storefront page
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findByShopOrderByCreatedDateDesc(Shop shop, Pageable pageable);
+
+    @Query("""
+            select count(p) as total,
+                   coalesce(sum(case when p.stockQuantity > 0 then 1 else 0 end), 0) as inStock
+            from Product p where p.shop = :shop
+            """)
+    StockCounts countStockByShop(@Param("shop") Shop shop);
+
+    interface StockCounts {
+        long getTotal();
+        long getInStock();
+    }
+
+    /**
+     * Apply one review change to the product's rating aggregates in a single statement.
+     * addedRating / removedRating are 1..5, or 0 when nothing is added / removed.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE products SET
+                review_count = review_count + :countDelta,
+                rating_sum = rating_sum + :sumDelta,
+                rating_1_count = rating_1_count + (CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END),
+                rating_2_count = rating_2_count + (CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END),
+                rating_3_count = rating_3_count + (CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END),
+                rating_4_count = rating_4_count + (CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END),
+                rating_5_count = rating_5_count + (CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END),
+                average_rating = CASE WHEN review_count + :countDelta > 0
+                    THEN ROUND(CAST(rating_sum + :sumDelta AS numeric) / (review_count + :countDelta), 2)
+                    ELSE 0 END
+            WHERE product_id = :productId
+            """, nativeQuery = true)
+    int applyRatingDelta(@Param("productId") Long productId,
+                         @Param("countDelta") int countDelta,
+                         @Param("sumDelta") int sumDelta,
+                         @Param("addedRating") int addedRating,
+                         @Param("removedRating") int removedRating);
+
+    /**
+     * Point the product at an image if it has no primary image yet
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE products SET primary_image_id = :imageId
+            WHERE product_id = :productId AND primary_image_id IS NULL
+            """, nativeQuery = true)
+    int setPrimaryImageIfAbsent(@Param("productId") Long productId, @Param("imageId") Long imageId);
+
+    @Modifying
+    @Query(value = "UPDATE products SET primary_image_id = :imageId WHERE product_id = :productId", nativeQuery = true)
+    int setPrimaryImage(@Param("productId") Long productId, @Param("imageId") Long imageId);
+
+    /**
+     * Move the primary pointer off an image that is about to be removed (to the oldest remaining one)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE products SET primary_image_id = (
+                SELECT MIN(i.image_id) FROM product_images i
+                WHERE i.product_id = :productId AND i.image_id <> :imageId
+            )
+            WHERE product_id = :productId AND primary_image_id = :imageId
+            """, nativeQuery = true)
+    int replacePrimaryImage(@Param("productId") Long productId, @Param("imageId") Long imageId);
+
+    /**
+     * Put back the stock of every line of a cancelled order in one statement
+     * (checkout takes it with OrderService.takeStock, one statement per cart)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE products p SET stock_quantity = p.stock_quantity + oi.quantity, version = p.version + 1
+            FROM order_items oi
+            WHERE oi.order_id = :orderId AND p.product_id = oi.product_id
+            """, nativeQuery = true)
+    int restockOrder(@Param("orderId") Long orderId);
+
+    /**
+     * The columns a product's ETag is derived from, without loading the entity graph
+     */
+    @Query(value = """
+            SELECT p.version AS version, p.review_count AS reviewCount, p.rating_sum AS ratingSum,
+                   p.units_sold AS unitsSold, p.primary_image_id AS primaryImageId,
+                   s.review_count AS shopReviewCount, s.rating_sum AS shopRatingSum
+            FROM products p JOIN shop s ON s.shop_id = p.shop_id
+            WHERE p.product_id = :productId
+            """, nativeQuery = true)
+    Optional<ETagState> findETagState(@Param("productId") Long productId);
+
+    interface ETagState {
+        Long getVersion();
+        Integer getReviewCount();
+        Integer getRatingSum();
+        Integer getUnitsSold();
+        Long getPrimaryImageId();
+        Integer getShopReviewCount();
+        Integer getShopRatingSum();
+    }
 }
@@ -0,0 +1,32 @@
+package com.bkplatform.repository;
+import com.bkplatform.dto.ReviewResponse;
+import com.bkplatform.model.Product;
+import com.bkplatform.model.ProductReview;
+import com.bkplatform.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
+    boolean existsByProductAndUser(Product product, User user);
+
+    // Row lock so concurrent edits of one review cannot apply the same old rating twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ProductReview r where r.productReviewId = :id")
+    Optional<ProductReview> findByIdForUpdate(@Param("id") Long id);
+
+    // Projection straight into the DTO: one query per page, no eager product/user graph
+    @Query(value = """
+            select new com.bkplatform.dto.ReviewResponse(
+                r.productReviewId, r.product.productId, u.userId, u.username, u.fullName,
+                r.rating, r.content, r.reviewDate)
+            from ProductReview r join r.user u
+            where r.product.productId = :productId
+            """,
+            countQuery = "select count(r) from ProductReview r where r.product.productId = :productId")
+    Page<ReviewResponse> findResponsesByProductId(@Param("productId") Long productId, Pageable pageable);
+}
@@ -0,0 +1,11 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.Shipment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
+
+    Optional<Shipment> findByOrderOrderId(Long orderId);
+}
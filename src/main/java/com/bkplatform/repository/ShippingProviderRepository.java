@@ -0,0 +1,15 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.ShippingProvider;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface ShippingProviderRepository extends JpaRepository<ShippingProvider, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ShippingProvider> findAllByOrderByProviderNameAsc();
+}
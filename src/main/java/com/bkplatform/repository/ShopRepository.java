@@ -2,7 +2,61 @@ package com.bkplatform.repository;
 import com.bkplatform.model.Shop;
 import com.bkplatform.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 public interface ShopRepository extends JpaRepository<Shop, Long> {
     Optional<Shop> findByOwner(User owner);
+
+    /**
+     * Same contract as ProductRepository.applyRatingDelta, rolled up to the shop.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE shop SET
+                review_count = review_count + :countDelta,
+                rating_sum = rating_sum + :sumDelta,
+                rating_1_count = rating_1_count + (CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END),
+                rating_2_count = rating_2_count + (CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END),
+                rating_3_count = rating_3_count + (CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END),
+                rating_4_count = rating_4_count + (CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END),
+                rating_5_count = rating_5_count + (CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END),
+                average_rating = CASE WHEN review_count + :countDelta > 0
+                    THEN ROUND(CAST(rating_sum + :sumDelta AS numeric) / (review_count + :countDelta), 1)
+                    ELSE 0 END
+            WHERE shop_id = :shopId
+            """, nativeQuery = true)
+    int applyRatingDelta(@Param("shopId") Long shopId,
+                         @Param("countDelta") int countDelta,
+                         @Param("sumDelta") int sumDelta,
+                         @Param("addedRating") int addedRating,
+                         @Param("removedRating") int removedRating);
+
+    /**
+     * Remove a deleted product's whole rating contribution from its shop.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE shop SET
+                review_count = review_count - :reviewCount,
+                rating_sum = rating_sum - :ratingSum,
+                rating_1_count = rating_1_count - :r1,
+                rating_2_count = rating_2_count - :r2,
+                rating_3_count = rating_3_count - :r3,
+                rating_4_count = rating_4_count - :r4,
+                rating_5_count = rating_5_count - :r5,
+                average_rating = CASE WHEN review_count - :reviewCount > 0
+                    THEN ROUND(CAST(rating_sum - :ratingSum AS numeric) / (review_count - :reviewCount), 1)
+                    ELSE 0 END
+            WHERE shop_id = :shopId
+            """, nativeQuery = true)
+    int subtractProductRatings(@Param("shopId") Long shopId,
+                               @Param("reviewCount") int reviewCount,
+                               @Param("ratingSum") int ratingSum,
+                               @Param("r1") int r1,
+                               @Param("r2") int r2,
+                               @Param("r3") int r3,
+                               @Param("r4") int r4,
+                               @Param("r5") int r5);
 }
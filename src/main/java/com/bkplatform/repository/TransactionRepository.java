@@ -0,0 +1,64 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    Optional<Transaction> findByOrderOrderId(Long orderId);
+
+    /**
+     * ✅ Compare-and-set on the status: only one worker/callback wins a transition, no row lock is held
+     * while deciding. Returns 0 when the transaction is no longer in the expected state.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            UPDATE transactions SET transaction_status = :to, status_changed_at = CURRENT_TIMESTAMP
+            WHERE transaction_id = :id AND transaction_status = :from
+            """, nativeQuery = true)
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE transactions SET gateway_reference = :reference WHERE transaction_id = :id", nativeQuery = true)
+    int setGatewayReference(@Param("id") Long id, @Param("reference") String reference);
+
+    /**
+     * Online payments still pending after the cutoff: their after-commit task was lost (restart, full queue)
+     */
+    @Query(value = """
+            SELECT transaction_id FROM transactions
+            WHERE transaction_status = 'pending' AND transaction_method <> 'COD' AND transaction_date < :cutoff
+            ORDER BY transaction_date
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findStalePending(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Charges in processing since before the cutoff: the worker died mid-call or the provider callback never came
+     */
+    @Query(value = """
+            SELECT transaction_id FROM transactions
+            WHERE transaction_status = 'processing' AND status_changed_at < :cutoff
+            ORDER BY status_changed_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findStaleProcessing(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Refunds not confirmed by the gateway since before the cutoff: the task was lost or the gateway call failed
+     */
+    @Query(value = """
+            SELECT transaction_id FROM transactions
+            WHERE transaction_status = 'refunding' AND status_changed_at < :cutoff
+            ORDER BY status_changed_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findStaleRefunding(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
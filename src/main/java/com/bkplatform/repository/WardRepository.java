@@ -0,0 +1,15 @@
+package com.bkplatform.repository;
+
+import com.bkplatform.model.Ward;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface WardRepository extends JpaRepository<Ward, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Ward> findByDistrictDistrictIdOrderByWardNameAsc(Long districtId);
+}
@@ -1,10 +1,11 @@
 package com.bkplatform.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
@@ -17,17 +18,40 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
 
+    // ✅ bk.auth.jwt{outcome}: token parsing + user lookup, only for requests that carry a token
+    private final Map<String, Timer> authTimers;
+
     private static final String BEARER_PREFIX = "Bearer ";
 
+    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.authTimers = Map.of(
+                "authenticated", authTimer(meterRegistry, "authenticated"),
+                "rejected", authTimer(meterRegistry, "rejected"),
+                "skipped", authTimer(meterRegistry, "skipped"),
+                "expired", authTimer(meterRegistry, "expired"),
+                "invalid", authTimer(meterRegistry, "invalid"),
+                "error", authTimer(meterRegistry, "error"));
+    }
+
+    private static Timer authTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("bk.auth.jwt")
+                .description("JWT validation and user lookup in JwtAuthFilter")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -41,9 +65,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        // ✅ Log request for debugging (optional, remove in production)
-        String path = request.getRequestURI();
-        log.debug("Processing request: {} {}", request.getMethod(), path);
+        // ✅ Per-request DEBUG lines are sampled in prod (logback-spring.xml)
+        log.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
         // Extract Authorization header
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -55,6 +78,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        // ✅ Bad tokens are client errors, counted by bk.auth.jwt{outcome} and logged at DEBUG only:
+        // at WARN/ERROR any client could flood the log
+        long startedAt = System.nanoTime();
+        String outcome = "skipped";
         try {
             // Extract token
             String token = authHeader.substring(BEARER_PREFIX.length());
@@ -88,32 +115,43 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
                     log.debug("User {} authenticated successfully", username);
+                    outcome = "authenticated";
 
                 } else {
-                    log.warn("JWT token validation failed for user: {}", username);
+                    log.debug("JWT token validation failed for user: {}", username);
+                    outcome = "rejected";
                 }
             }
 
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            log.warn("JWT token expired: {}", e.getMessage());
+            log.debug("JWT token expired: {}", e.getMessage());
+            outcome = "expired";
             // ✅ Optional: Set custom header to inform client
             response.setHeader("X-Token-Expired", "true");
 
         } catch (io.jsonwebtoken.MalformedJwtException e) {
-            log.error("Malformed JWT token: {}", e.getMessage());
+            log.debug("Malformed JWT token: {}", e.getMessage());
+            outcome = "invalid";
 
         } catch (io.jsonwebtoken.UnsupportedJwtException e) {
-            log.error("Unsupported JWT token: {}", e.getMessage());
+            log.debug("Unsupported JWT token: {}", e.getMessage());
+            outcome = "invalid";
 
         } catch (io.jsonwebtoken.security.SignatureException e) {
-            log.error("JWT signature validation failed: {}", e.getMessage());
+            log.debug("JWT signature validation failed: {}", e.getMessage());
+            outcome = "invalid";
 
         } catch (IllegalArgumentException e) {
-            log.error("JWT token is invalid: {}", e.getMessage());
+            log.debug("JWT token is invalid: {}", e.getMessage());
+            outcome = "invalid";
 
         } catch (Exception e) {
             // ✅ FIX: Use proper logger instead of System.err
             log.error("JWT validation error: {}", e.getMessage(), e);
+            outcome = "error";
+
+        } finally {
+            authTimers.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
         }
 
         // ✅ Always continue the filter chain
@@ -131,6 +169,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return path.startsWith("/api/auth/") ||
                 path.startsWith("/swagger-ui") ||
                 path.startsWith("/v3/api-docs") ||
+                path.startsWith("/actuator/") ||
                 path.equals("/error");
     }
 }
\ No newline at end of file
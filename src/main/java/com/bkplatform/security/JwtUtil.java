@@ -112,16 +112,16 @@ public class JwtUtil {
             log.debug("JWT token is expired: {}", e.getMessage());
             throw e;
         } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
+            log.debug("JWT token is unsupported: {}", e.getMessage());
             throw e;
         } catch (MalformedJwtException e) {
-            log.error("JWT token is malformed: {}", e.getMessage());
+            log.debug("JWT token is malformed: {}", e.getMessage());
             throw e;
         } catch (SignatureException e) {
-            log.error("JWT signature validation failed: {}", e.getMessage());
+            log.debug("JWT signature validation failed: {}", e.getMessage());
             throw e;
         } catch (IllegalArgumentException e) {
-            log.error("JWT token is invalid: {}", e.getMessage());
+            log.debug("JWT token is invalid: {}", e.getMessage());
             throw e;
         }
     }
@@ -135,13 +135,13 @@ public class JwtUtil {
             boolean isValid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
 
             if (!isValid) {
-                log.warn("Token validation failed for user: {}", username);
+                log.debug("Token validation failed for user: {}", username);
             }
 
             return isValid;
 
         } catch (Exception e) {
-            log.error("Error validating token: {}", e.getMessage());
+            log.debug("Error validating token: {}", e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,117 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.AddressRequest;
+import com.bkplatform.dto.AddressResponse;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.exception.UnauthorizedException;
+import com.bkplatform.model.AddressBook;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.AddressBookRepository;
+import com.bkplatform.repository.WardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * User address book. Ward/district/province names come from the in-memory LocationHierarchy.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AddressBookService {
+
+    private final AddressBookRepository addressBookRepository;
+    private final WardRepository wardRepository;
+    private final LocationHierarchy locationHierarchy;
+
+    @Value("${app.addresses.max-per-user:20}")
+    private int maxPerUser;
+
+    @Transactional(readOnly = true)
+    public List<AddressResponse> getAddresses(User user) {
+        return addressBookRepository.findByUserUserIdOrderByAddressIdAsc(user.getUserId()).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Transactional
+    public AddressResponse create(AddressRequest request, User user) {
+        if (addressBookRepository.countByUserUserId(user.getUserId()) >= maxPerUser) {
+            throw new InvalidDataException("An address book can hold at most " + maxPerUser + " addresses");
+        }
+
+        AddressBook address = AddressBook.builder().user(user).build();
+        apply(address, request);
+        address = addressBookRepository.save(address);
+
+        log.debug("User {} added address {}", user.getUserId(), address.getAddressId());
+        return toResponse(address);
+    }
+
+    @Transactional
+    public AddressResponse update(Long addressId, AddressRequest request, User user) {
+        AddressBook address = getOwned(addressId, user);
+        apply(address, request);
+        return toResponse(address);
+    }
+
+    @Transactional
+    public void delete(Long addressId, User user) {
+        addressBookRepository.delete(getOwned(addressId, user));
+    }
+
+    /**
+     * Address owned by the user; used by checkout as well
+     */
+    public AddressBook getOwned(Long addressId, User user) {
+        AddressBook address = addressBookRepository.findById(addressId)
+                .orElseThrow(() -> new ResourceNotFoundException("Address not found"));
+
+        if (!address.getUser().getUserId().equals(user.getUserId())) {
+            throw new UnauthorizedException("You don't have permission to use this address");
+        }
+        return address;
+    }
+
+    public String formatAddress(AddressBook address) {
+        return locationHierarchy.formatAddress(address.getAddressDetail(), wardIdOf(address));
+    }
+
+    private void apply(AddressBook address, AddressRequest request) {
+        // ✅ Validated against the in-memory hierarchy, no lookup query
+        if (locationHierarchy.findWard(request.getWardId()).isEmpty()) {
+            throw new InvalidDataException("Ward not found with id: " + request.getWardId());
+        }
+
+        address.setAddressDetail(request.getAddressDetail().trim());
+        address.setPhoneNo(request.getPhoneNo());
+        address.setWard(wardRepository.getReferenceById(request.getWardId()));
+    }
+
+    private AddressResponse toResponse(AddressBook address) {
+        AddressResponse response = new AddressResponse();
+        response.setAddressId(address.getAddressId());
+        response.setAddressDetail(address.getAddressDetail());
+        response.setPhoneNo(address.getPhoneNo());
+        response.setFullAddress(formatAddress(address));
+
+        locationHierarchy.findWard(wardIdOf(address)).ifPresent(ward -> {
+            response.setWardId(ward.wardId());
+            response.setWardName(ward.wardName());
+            response.setDistrictId(ward.districtId());
+            response.setDistrictName(ward.districtName());
+            response.setProvinceId(ward.provinceId());
+            response.setProvinceName(ward.provinceName());
+        });
+        return response;
+    }
+
+    private static Long wardIdOf(AddressBook address) {
+        return address.getWard() == null ? null : address.getWard().getWardId();
+    }
+}
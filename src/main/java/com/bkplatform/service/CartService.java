@@ -7,6 +7,7 @@ import com.bkplatform.model.*;
 import com.bkplatform.repository.CartItemRepository;
 import com.bkplatform.repository.CartRepository;
 import com.bkplatform.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import java.util.List;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "bk.cart", description = "Cart operations, tagged by method")
 public class CartService {
 
     private final CartRepository cartRepository;
@@ -28,7 +30,7 @@ public class CartService {
     private Cart getOrCreateCart(User user) {
         return cartRepository.findByUser(user)
                 .orElseGet(() -> {
-                    log.info("Creating new cart for user: {}", user.getUsername());
+                    log.debug("Creating new cart for user: {}", user.getUsername());
                     return cartRepository.save(Cart.builder().user(user).build());
                 });
     }
@@ -66,6 +68,7 @@ public class CartService {
         // ✅ Get existing or create new
         CartItem item = cartItemRepository.findById(id)
                 .orElse(CartItem.builder()
+                        .id(id) // @MapsId fills this key; without it the insert fails
                         .cart(cart)
                         .product(product)
                         .quantity(0)
@@ -87,7 +90,7 @@ public class CartService {
 
         item.setQuantity(newQuantity);
 
-        log.info("Added {} items of product {} to cart for user {}",
+        log.debug("Added {} items of product {} to cart for user {}",
                 requestedQty, product.getProductId(), user.getUsername());
 
         return cartItemRepository.save(item);
@@ -123,7 +126,7 @@ public class CartService {
 
         item.setQuantity(quantity);
 
-        log.info("Updated cart item quantity to {} for user {}", quantity, user.getUsername());
+        log.debug("Updated cart item quantity to {} for user {}", quantity, user.getUsername());
 
         return cartItemRepository.save(item);
     }
@@ -143,7 +146,7 @@ public class CartService {
 
         cartItemRepository.deleteById(id);
 
-        log.info("Removed product {} from cart for user {}", productId, user.getUsername());
+        log.debug("Removed product {} from cart for user {}", productId, user.getUsername());
     }
 
     @Transactional
@@ -0,0 +1,51 @@
+package com.bkplatform.service;
+
+import com.bkplatform.config.CacheConfig;
+import com.bkplatform.dto.CategoryFacetResponse;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.model.Category;
+import com.bkplatform.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Categories with live product counts and price ranges for the sidebar.
+     * ✅ One grouped query, cached for a few seconds per normalized search term
+     * (key by position: a parameter-name key silently becomes '' for every term when names are not compiled in)
+     */
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_FACETS, key = "#p0 == null ? '' : #p0.trim().toLowerCase()")
+    public List<CategoryFacetResponse> getCategoriesWithFacets(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return categoryRepository.findAllWithFacets();
+        }
+
+        log.debug("Computing category facets for search: {}", search);
+        String pattern = "%" + search.toLowerCase().trim() + "%";
+        return categoryRepository.findAllWithFacets(pattern);
+    }
+
+    /**
+     * Price ranges changed in bulk: drop every cached facet list at once
+     */
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_FACETS, allEntries = true)
+    public void evictFacets() {
+        log.debug("Evicted category facets cache");
+    }
+
+    public Category getById(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+    }
+}
@@ -0,0 +1,129 @@
+package com.bkplatform.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: one record at a time from a Reader, so memory stays
+ * bounded by the longest row. Handles quoted fields, doubled quotes and newlines inside quotes.
+ */
+class CsvRowReader {
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private long lineNumber = 0;
+    private long recordLine = 0;
+    private int peeked = -2;
+
+    CsvRowReader(Reader reader, int maxFieldLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            lineNumber++;
+            if (c == '\n') {
+                continue;
+            }
+            if (c == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                continue;
+            }
+            unread(c);
+            // ✅ Captured before reading: quoted newlines move lineNumber past the record's start
+            recordLine = lineNumber;
+            return readRecord();
+        }
+    }
+
+    /**
+     * Line on which the last returned record started (1-based)
+     */
+    long getLineNumber() {
+        return recordLine;
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + lineNumber);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(field, (char) c);
+                }
+                continue;
+            }
+
+            if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                append(field, (char) c);
+            }
+        }
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= maxFieldLength) {
+            throw new IOException("Field longer than " + maxFieldLength + " characters on line " + lineNumber);
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private void unread(int c) {
+        peeked = c;
+    }
+}
@@ -10,8 +10,6 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 @Slf4j
 @Service
@@ -29,7 +27,7 @@ public class EmailService {
     /**
      * ✅ Gửi email đơn giản (text thuần)
      */
-    @Async
+    @Async("emailExecutor")
     public void sendSimpleEmail(String to, String subject, String text) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -51,7 +49,7 @@ public class EmailService {
     /**
      * ✅ Gửi email HTML (đẹp hơn)
      */
-    @Async
+    @Async("emailExecutor")
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
@@ -75,7 +73,7 @@ public class EmailService {
     /**
      * 📧 Gửi email chào mừng sau khi đăng ký
      */
-    @Async
+    @Async("emailExecutor")
     public void sendWelcomeEmail(String to, String username) {
         String subject = "🎉 Welcome to BK Platform!";
 
@@ -125,7 +123,7 @@ public class EmailService {
     /**
      * 🔐 Gửi email reset password
      */
-    @Async
+    @Async("emailExecutor")
     public void sendPasswordResetEmail(String to, String resetToken) {
         String resetLink = frontendUrl + "/reset-password?token=" + resetToken;
         String subject = "🔑 Password Reset Request";
@@ -183,7 +181,7 @@ public class EmailService {
     /**
      * 📦 Gửi email xác nhận đơn hàng
      */
-    @Async
+    @Async("emailExecutor")
     public void sendOrderConfirmationEmail(String to, Long orderId, String totalAmount) {
         String subject = "✅ Order Confirmation #" + orderId;
 
@@ -0,0 +1,202 @@
+package com.bkplatform.service;
+
+import com.bkplatform.exception.InvalidDataException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store on local disk.
+ *
+ * Layout under app.images.storage-dir:
+ *   originals/ab/abcdef...(sha-256).jpg
+ *   variants/thumb/ab/abcdef....jpg
+ *   tmp/ (in-flight uploads)
+ *
+ * Uploads are streamed to a temp file while hashing, then atomically moved into place,
+ * so identical images are stored once and nothing is buffered whole in memory.
+ */
+@Slf4j
+@Service
+public class ImageStorageService {
+
+    public enum Variant {
+        THUMB(200), MEDIUM(600), ORIGINAL(0);
+
+        private final int maxSize;
+
+        Variant(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public String pathName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public record StoredImage(String hash, String extension, String contentType, long size) {
+    }
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Path root;
+    private final long maxBytes;
+
+    public ImageStorageService(
+            @Value("${app.images.storage-dir:./data/images}") String storageDir,
+            @Value("${app.images.max-bytes:10485760}") long maxBytes) throws IOException {
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        Files.createDirectories(root.resolve("tmp"));
+        Files.createDirectories(root.resolve("originals"));
+        Files.createDirectories(root.resolve("variants"));
+        log.info("Image store at {}", root);
+    }
+
+    /**
+     * Stream an upload into the store and return its content address
+     */
+    public StoredImage store(InputStream input) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] header = new byte[12];
+            int headerLength = 0;
+            long total = 0;
+
+            try (DigestInputStream in = new DigestInputStream(input, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (headerLength < header.length) {
+                        int copy = Math.min(read, header.length - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copy);
+                        headerLength += copy;
+                    }
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new InvalidDataException("Image exceeds maximum size of " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            // ✅ Trust the bytes, not the declared Content-Type
+            String extension = sniffExtension(header, headerLength)
+                    .orElseThrow(() -> new InvalidDataException("Only JPEG, PNG and GIF images are supported"));
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = originalPath(hash, extension);
+            Files.createDirectories(target.getParent());
+
+            if (Files.exists(target)) {
+                log.debug("Image {} already stored, deduplicated", hash);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+            }
+
+            return new StoredImage(hash, extension, contentTypeFor(extension), total);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temp upload {}", temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Locate the original of a stored image
+     */
+    public Optional<Path> findOriginal(String hash) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        for (String extension : new String[]{"jpg", "png", "gif"}) {
+            Path path = originalPath(hash, extension);
+            if (Files.isRegularFile(path)) {
+                return Optional.of(path);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Locate a variant; falls back to the original while the variant is not generated yet
+     */
+    public Optional<Path> find(String hash, Variant variant) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        if (variant != Variant.ORIGINAL) {
+            Path path = variantPath(hash, variant);
+            if (Files.isRegularFile(path)) {
+                return Optional.of(path);
+            }
+        }
+        return findOriginal(hash);
+    }
+
+    public Path variantPath(String hash, Variant variant) {
+        return root.resolve("variants").resolve(variant.pathName()).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    public static String contentTypeFor(String extension) {
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            default -> "image/jpeg";
+        };
+    }
+
+    private Path originalPath(String hash, String extension) {
+        return root.resolve("originals").resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private static Optional<String> sniffExtension(byte[] h, int length) {
+        if (length >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+            return Optional.of("jpg");
+        }
+        if (length >= 8 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G') {
+            return Optional.of("png");
+        }
+        if (length >= 6 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8') {
+            return Optional.of("gif");
+        }
+        return Optional.empty();
+    }
+}
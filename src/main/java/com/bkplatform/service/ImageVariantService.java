@@ -0,0 +1,166 @@
+package com.bkplatform.service;
+
+import com.bkplatform.service.ImageStorageService.Variant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Precomputes resized JPEG variants (thumb, medium) of stored originals.
+ * Work runs on the bounded imageVariantExecutor after the upload commits;
+ * until a variant exists, ImageController serves the original.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private final ImageStorageService storageService;
+    private final TaskExecutor imageVariantExecutor;
+
+    @Value("${app.images.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    public ImageVariantService(ImageStorageService storageService,
+                               @Qualifier("imageVariantExecutor") TaskExecutor imageVariantExecutor) {
+        this.storageService = storageService;
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+
+    /**
+     * Queue variant generation once the current transaction commits
+     */
+    public void generateAfterCommit(String hash) {
+        Runnable submit = () -> imageVariantExecutor.execute(() -> generate(hash));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    void generate(String hash) {
+        Path original = storageService.findOriginal(hash).orElse(null);
+        if (original == null) {
+            log.warn("Original image {} disappeared before variants were generated", hash);
+            return;
+        }
+
+        try {
+            if (variantsExist(hash)) {
+                return; // ✅ Deduplicated upload, nothing to do
+            }
+
+            BufferedImage source = readBounded(original);
+            if (source == null) {
+                log.warn("Image {} could not be decoded, variants skipped", hash);
+                return;
+            }
+
+            for (Variant variant : Variant.values()) {
+                if (variant != Variant.ORIGINAL) {
+                    writeVariant(hash, source, variant);
+                }
+            }
+            log.debug("Generated variants for image {}", hash);
+
+        } catch (IOException e) {
+            log.error("Failed to generate variants for image {}", hash, e);
+        }
+    }
+
+    private boolean variantsExist(String hash) {
+        for (Variant variant : Variant.values()) {
+            if (variant != Variant.ORIGINAL && !Files.isRegularFile(storageService.variantPath(hash, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read dimensions from the header first so a tiny file declaring a huge canvas
+     * is rejected before any pixel buffer is allocated
+     */
+    private BufferedImage readBounded(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    log.warn("Image {} has {} pixels, above limit {}", original.getFileName(), pixels, maxSourcePixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeVariant(String hash, BufferedImage source, Variant variant) throws IOException {
+        Path target = storageService.variantPath(hash, variant);
+        if (Files.isRegularFile(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+
+        BufferedImage resized = resize(source, variant.getMaxSize());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".part");
+        try {
+            ImageIO.write(resized, "jpg", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Fit within maxSize x maxSize, never upscale; flattened to RGB for JPEG
+     */
+    private static BufferedImage resize(BufferedImage source, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,180 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.InventoryUpdateRequest;
+import com.bkplatform.dto.InventoryUpdateResponse;
+import com.bkplatform.dto.InventoryUpdateResponse.ItemResult;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.model.Shop;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk stock / price sync (POS integrations).
+ * Ownership of every id is checked with one query, valid rows are written with one
+ * UPDATE ... FROM (VALUES ...) per chunk, and caches are evicted once for the whole batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ShopRepository shopRepository;
+    private final ShopService shopService;
+    private final CategoryService categoryService;
+
+    @Value("${app.inventory.update-chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional
+    public InventoryUpdateResponse bulkUpdate(InventoryUpdateRequest request, User owner) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+
+        List<InventoryUpdateRequest.Item> items = request.getItems();
+        Map<Long, Long> shopByProduct = loadShopIds(items);
+
+        // Results keep request order; valid items are collected for the UPDATE
+        List<ItemResult> results = new ArrayList<>(items.size());
+        List<InventoryUpdateRequest.Item> valid = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        boolean priceChanged = false;
+
+        for (InventoryUpdateRequest.Item item : items) {
+            Long productId = item.getProductId();
+            Long productShop = shopByProduct.get(productId);
+            String priceViolation = priceViolation(item.getPrice());
+
+            if (!seen.add(productId)) {
+                results.add(new ItemResult(productId, "invalid", "Duplicate productId in request"));
+            } else if (item.getStockQuantity() == null && item.getPrice() == null) {
+                results.add(new ItemResult(productId, "invalid", "Nothing to update"));
+            } else if (priceViolation != null) {
+                results.add(new ItemResult(productId, "invalid", priceViolation));
+            } else if (productShop == null) {
+                results.add(new ItemResult(productId, "not_found", "Product not found"));
+            } else if (!productShop.equals(shop.getShopId())) {
+                results.add(new ItemResult(productId, "forbidden", "You don't have permission to update this product"));
+            } else {
+                results.add(new ItemResult(productId, "updated", null));
+                valid.add(item);
+                priceChanged |= item.getPrice() != null;
+            }
+        }
+
+        Set<Long> updatedIds = new HashSet<>();
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            updatedIds.addAll(applyChunk(shop.getShopId(), valid.subList(from, Math.min(from + chunkSize, valid.size()))));
+        }
+        int updated = updatedIds.size();
+
+        // Deleted between the ownership check and the UPDATE
+        if (updated < valid.size()) {
+            results.stream()
+                    .filter(r -> "updated".equals(r.getStatus()) && !updatedIds.contains(r.getProductId()))
+                    .forEach(r -> {
+                        r.setStatus("not_found");
+                        r.setMessage("Product not found");
+                    });
+        }
+
+        // ✅ One eviction for the whole batch, not one per product
+        if (updated > 0) {
+            shopService.evictStorefront(shop.getShopId());
+            if (priceChanged) {
+                categoryService.evictFacets();
+            }
+        }
+
+        InventoryUpdateResponse response = new InventoryUpdateResponse();
+        response.setUpdated(updated);
+        response.setFailed(items.size() - updated);
+        response.setResults(results);
+
+        log.info("Inventory sync for shop {}: {} updated, {} rejected", shop.getShopId(), updated, response.getFailed());
+        return response;
+    }
+
+    /**
+     * Same limits as the CSV import: a price that does not fit NUMERIC(12,2) would fail the CAST
+     * and with it the whole chunk, so it is rejected here, per item
+     */
+    private static String priceViolation(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal normalized = price.stripTrailingZeros();
+        if (normalized.scale() > ProductImportService.PRICE_SCALE) {
+            return "Price must have at most " + ProductImportService.PRICE_SCALE + " decimal places";
+        }
+        if (normalized.precision() - normalized.scale() > ProductImportService.PRICE_INTEGER_DIGITS) {
+            return "Price must have at most " + ProductImportService.PRICE_INTEGER_DIGITS + " digits before the decimal point";
+        }
+        return null;
+    }
+
+    /**
+     * product_id -> shop_id for every requested id that exists
+     */
+    private Map<Long, Long> loadShopIds(List<InventoryUpdateRequest.Item> items) {
+        Set<Long> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getProductId()));
+
+        Map<Long, Long> result = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT product_id, shop_id FROM products WHERE product_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    result.put(rs.getLong("product_id"), rs.getLong("shop_id"));
+                });
+        return result;
+    }
+
+    /**
+     * One statement for the chunk; null columns in a row keep the current value.
+     * The shop_id condition re-checks ownership inside the UPDATE itself.
+     */
+    private List<Long> applyChunk(Long shopId, List<InventoryUpdateRequest.Item> chunk) {
+        MapSqlParameterSource params = new MapSqlParameterSource("shopId", shopId);
+        StringBuilder values = new StringBuilder();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            InventoryUpdateRequest.Item item = chunk.get(i);
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(:id").append(i).append(" AS INT), CAST(:stock").append(i)
+                    .append(" AS INT), CAST(:price").append(i).append(" AS NUMERIC(12,2)))");
+            params.addValue("id" + i, item.getProductId());
+            params.addValue("stock" + i, item.getStockQuantity());
+            params.addValue("price" + i, item.getPrice());
+        }
+
+        String sql = """
+                UPDATE products p SET
+                    stock_quantity = COALESCE(v.stock_quantity, p.stock_quantity),
+                    price = COALESCE(v.price, p.price),
+                    version = p.version + 1
+                FROM (VALUES %s) AS v(product_id, stock_quantity, price)
+                WHERE p.product_id = v.product_id AND p.shop_id = :shopId
+                RETURNING p.product_id
+                """.formatted(values);
+
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.bkplatform.service;
+
+import com.bkplatform.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Province → district → ward tree held in memory.
+ * Each load builds a new immutable snapshot and swaps it in with one volatile write, so readers
+ * (cascading dropdowns, address formatting) never touch the database and never see a half-built tree.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LocationHierarchy {
+
+    public record Division(Long id, String name) {
+    }
+
+    public record WardPath(Long wardId, String wardName,
+                           Long districtId, String districtName,
+                           Long provinceId, String provinceName) {
+    }
+
+    private record Snapshot(List<Division> provinces,
+                            Map<Long, List<Division>> districtsByProvince,
+                            Map<Long, List<Division>> wardsByDistrict,
+                            Map<Long, WardPath> wards,
+                            long schemaRank) {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), Map.of(), Map.of(), -1);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceCacheService referenceCacheService;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not load location hierarchy at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reference data only changes through migrations; reload when another migration has been applied
+     * (possibly by another instance) since the current snapshot was built.
+     * The READ_ONLY second-level cache regions hold the same rows, so they are refreshed too.
+     */
+    @Scheduled(fixedDelayString = "${app.locations.check-interval-ms:60000}",
+            initialDelayString = "${app.locations.check-interval-ms:60000}")
+    public void reloadIfMigrated() {
+        if (currentSchemaRank() != snapshot.schemaRank()) {
+            log.info("New migration detected, reloading reference data");
+            reload();
+            referenceCacheService.reload();
+        }
+    }
+
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        long schemaRank = currentSchemaRank();
+
+        List<Division> provinces = new ArrayList<>();
+        Map<Long, String> provinceNames = new HashMap<>();
+        jdbcTemplate.query("SELECT province_id, province_name FROM province ORDER BY province_name", rs -> {
+            Division province = new Division(rs.getLong(1), rs.getString(2));
+            provinces.add(province);
+            provinceNames.put(province.id(), province.name());
+        });
+
+        Map<Long, List<Division>> districtsByProvince = new HashMap<>();
+        Map<Long, Division> districts = new HashMap<>();
+        Map<Long, Long> provinceOfDistrict = new HashMap<>();
+        jdbcTemplate.query("SELECT district_id, district_name, province_id FROM district ORDER BY district_name", rs -> {
+            Division district = new Division(rs.getLong(1), rs.getString(2));
+            districts.put(district.id(), district);
+            provinceOfDistrict.put(district.id(), rs.getLong(3));
+            districtsByProvince.computeIfAbsent(rs.getLong(3), id -> new ArrayList<>()).add(district);
+        });
+
+        Map<Long, List<Division>> wardsByDistrict = new HashMap<>();
+        Map<Long, WardPath> wards = new HashMap<>();
+        jdbcTemplate.query("SELECT ward_id, ward_name, district_id FROM ward ORDER BY ward_name", rs -> {
+            Long districtId = rs.getLong(3);
+            Long provinceId = provinceOfDistrict.get(districtId);
+            Division ward = new Division(rs.getLong(1), rs.getString(2));
+            wardsByDistrict.computeIfAbsent(districtId, id -> new ArrayList<>()).add(ward);
+            wards.put(ward.id(), new WardPath(ward.id(), ward.name(),
+                    districtId, districts.get(districtId).name(),
+                    provinceId, provinceNames.get(provinceId)));
+        });
+
+        // Unmodifiable copies: the snapshot is shared by every request thread
+        districtsByProvince.replaceAll((id, list) -> List.copyOf(list));
+        wardsByDistrict.replaceAll((id, list) -> List.copyOf(list));
+        snapshot = new Snapshot(List.copyOf(provinces), Map.copyOf(districtsByProvince),
+                Map.copyOf(wardsByDistrict), Map.copyOf(wards), schemaRank);
+
+        log.info("Location hierarchy loaded in {}ms: {} provinces, {} districts, {} wards",
+                System.currentTimeMillis() - start, provinces.size(), districts.size(), wards.size());
+    }
+
+    public List<Division> getProvinces() {
+        return snapshot.provinces();
+    }
+
+    public List<Division> getDistricts(Long provinceId) {
+        Snapshot current = snapshot;
+        if (current.provinces().stream().noneMatch(p -> p.id().equals(provinceId))) {
+            throw new ResourceNotFoundException("Province not found with id: " + provinceId);
+        }
+        return current.districtsByProvince().getOrDefault(provinceId, List.of());
+    }
+
+    public List<Division> getWards(Long districtId) {
+        List<Division> wards = snapshot.wardsByDistrict().get(districtId);
+        if (wards == null) {
+            throw new ResourceNotFoundException("District not found or has no wards: " + districtId);
+        }
+        return wards;
+    }
+
+    public Optional<WardPath> findWard(Long wardId) {
+        return wardId == null ? Optional.empty() : Optional.ofNullable(snapshot.wards().get(wardId));
+    }
+
+    /**
+     * "detail, ward, district, province"; parts that are missing are skipped
+     */
+    public String formatAddress(String detail, Long wardId) {
+        StringJoiner joiner = new StringJoiner(", ");
+        if (detail != null && !detail.isBlank()) {
+            joiner.add(detail.trim());
+        }
+        findWard(wardId).ifPresent(ward -> joiner
+                .add(ward.wardName())
+                .add(ward.districtName())
+                .add(ward.provinceName()));
+        return joiner.toString();
+    }
+
+    private long currentSchemaRank() {
+        Long rank = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(installed_rank), 0) FROM flyway_schema_history WHERE success", Long.class);
+        return rank == null ? 0 : rank;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bkplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for internal writers that lose an optimistic-lock race.
+ * Each attempt runs in its own transaction (a failed one leaves a stale persistence context),
+ * so the action must reload what it changes. The backoff sleeps with no transaction open, so a
+ * waiting retry holds no connection. Inside a caller's transaction there is nothing to retry on
+ * its own: the action runs once and the conflict propagates to the caller.
+ * HTTP callers with If-Match are not retried: they get 409/412.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.concurrency.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.concurrency.backoff-ms:20}")
+    private long backoffMs;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // ✅ Never REQUIRES_NEW: that would pin a second connection while the caller's one waits
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                log.debug("{} hit a concurrent update, retrying (attempt {})", operation, attempt + 1);
+                // Transaction already rolled back and its connection returned to the pool
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        // Linear backoff with jitter so colliding writers do not retry in lockstep
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
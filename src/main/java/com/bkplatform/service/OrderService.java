@@ -1,21 +1,34 @@
 package com.bkplatform.service;
 
+import com.bkplatform.dto.CheckoutRequest;
 import com.bkplatform.dto.CheckoutResponse;
+import com.bkplatform.dto.FulfilmentQueueResponse;
+import com.bkplatform.dto.SellerOrderFeedResponse;
 import com.bkplatform.exception.EmptyCartException;
 import com.bkplatform.exception.InsufficientStockException;
 import com.bkplatform.exception.ResourceNotFoundException;
 import com.bkplatform.exception.UnauthorizedException;
 import com.bkplatform.model.*;
 import com.bkplatform.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -28,10 +41,26 @@ public class OrderService {
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final EmailService emailService;
+    private final AddressBookService addressBookService;
+    private final ShippingQuoteService shippingQuoteService;
+    private final PaymentService paymentService;
+    private final ShopRepository shopRepository;
+    private final TransactionRepository transactionRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SalesRollupService salesRollupService;
 
+    /**
+     * ✅ With an addressId the shipment is priced and created in the same transaction as the order
+     */
     @Transactional
-    public CheckoutResponse checkout(User user) {
-        log.info("Starting checkout for user: {}", user.getUsername());
+    @Timed(value = "bk.order.checkout", description = "Checkout: stock reservation, order, shipment and payment rows")
+    public CheckoutResponse checkout(User user, CheckoutRequest request) {
+        log.debug("Starting checkout for user: {}", user.getUsername());
+
+        // ✅ Resolve the delivery address before touching stock
+        AddressBook receiverAddress = request != null && request.getAddressId() != null
+                ? addressBookService.getOwned(request.getAddressId(), user)
+                : null;
 
         // ✅ Get cart
         Cart cart = cartRepository.findByUser(user)
@@ -45,9 +74,7 @@ public class OrderService {
             throw new EmptyCartException("Cannot checkout with empty cart");
         }
 
-        // ✅ Validate stock and calculate total
-        BigDecimal total = BigDecimal.ZERO;
-
+        // ✅ Validate stock
         for (CartItem item : items) {
             Product product = item.getProduct();
             int requestedQty = item.getQuantity();
@@ -69,11 +96,8 @@ public class OrderService {
                         )
                 );
             }
-
-            // Calculate subtotal
-            BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(requestedQty));
-            total = total.add(subtotal);
         }
+        BigDecimal total = orderTotal(items);
 
         // ✅ Create order
         Order order = Order.builder()
@@ -82,59 +106,139 @@ public class OrderService {
                 .build();
         order = orderRepository.save(order);
 
-        log.info("Created order {} with total cost: {}", order.getOrderId(), total);
+        log.debug("Created order {} with total cost: {}", order.getOrderId(), total);
+
+        // ✅ All order lines in one JDBC batch, each stamped with its seller
+        insertOrderItems(order, items);
 
-        // ✅ Create order items and update stock
+        // ✅ CRITICAL: Reduce stock with one conditional UPDATE for the whole cart (no lost update, no row lock held while reading)
+        Set<Long> taken = takeStock(items);
         for (CartItem item : items) {
             Product product = item.getProduct();
+            if (!taken.contains(product.getProductId())) {
+                // Someone bought the last units since the check above; the whole checkout rolls back
+                throw new InsufficientStockException(
+                        String.format("Product '%s' no longer has %d in stock", product.getName(), item.getQuantity())
+                );
+            }
+        }
 
-            // Create order item with price snapshot
-            OrderItem orderItem = OrderItem.builder()
-                    .order(order)
-                    .product(product)
-                    .quantity(item.getQuantity())
-                    .priceSnapshot(product.getPrice())
-                    .build();
-            orderItemRepository.save(orderItem);
-
-            // ✅ CRITICAL: Reduce stock quantity
-            int newStock = product.getStockQuantity() - item.getQuantity();
-            product.setStockQuantity(newStock);
-            productRepository.save(product);
+        Shipment shipment = receiverAddress != null
+                ? shippingQuoteService.createShipment(order, items, receiverAddress, request.getProviderId())
+                : null;
 
-            log.info("Updated stock for product {}: {} -> {}",
-                    product.getProductId(),
-                    product.getStockQuantity() + item.getQuantity(),
-                    newStock
-            );
-        }
+        // ✅ Payment row is written with the order; online methods are charged after commit, off this thread
+        PaymentMethod paymentMethod = request != null && request.getPaymentMethod() != null
+                ? request.getPaymentMethod()
+                : PaymentMethod.COD;
+        Transaction payment = paymentService.createForOrder(order, paymentMethod,
+                shipment != null ? shipment.getShippingCost() : null);
 
         // ✅ Clear cart after successful checkout
         cartItemRepository.deleteByCart(cart);
 
-        log.info("Checkout completed successfully for order {}", order.getOrderId());
+        // ✅ Last write: the shop/day rollup rows are shared by every buyer, so their locks are held only until commit
+        salesRollupService.recordOrder(order.getOrderId());
 
-        // ✅ FIX: Send order confirmation email
-        try {
-            String formattedAmount = formatCurrency(total);
-            emailService.sendOrderConfirmationEmail(
-                    user.getEmail(),
-                    order.getOrderId(),
-                    formattedAmount
-            );
-            log.info("Order confirmation email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            // Don't fail checkout if email fails
-            log.error("Failed to send order confirmation email", e);
-        }
+        // ✅ One INFO line per order; the steps above are DEBUG
+        log.info("Checkout completed for order {} ({} lines, total {})", order.getOrderId(), items.size(), total);
+
+        // ✅ FIX: Send order confirmation email, only once the order is committed
+        sendConfirmationAfterCommit(user.getEmail(), order.getOrderId(), total);
 
         // Build response
         CheckoutResponse response = new CheckoutResponse();
         response.setOrderId(order.getOrderId());
         response.setStatus("SUCCESS");
+        response.setPaymentMethod(payment.getTransactionMethod().name());
+        response.setPaymentStatus(payment.getTransactionStatus().name());
+        if (shipment != null) {
+            response.setShippingCost(shipment.getShippingCost());
+            response.setShippingProvider(shipment.getProvider().getProviderName());
+        }
         return response;
     }
 
+    private void sendConfirmationAfterCommit(String email, Long orderId, BigDecimal total) {
+        Runnable send = () -> {
+            try {
+                emailService.sendOrderConfirmationEmail(email, orderId, formatCurrency(total));
+                log.debug("Order confirmation email queued for order {}", orderId);
+            } catch (Exception e) {
+                // Don't fail checkout if email fails
+                log.error("Failed to send order confirmation email", e);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+
+    private void insertOrderItems(Order order, List<CartItem> items) {
+        MapSqlParameterSource[] rows = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("orderId", order.getOrderId())
+                        .addValue("productId", item.getProduct().getProductId())
+                        .addValue("shopId", item.getProduct().getShop().getShopId())
+                        .addValue("quantity", item.getQuantity())
+                        .addValue("price", item.getProduct().getPrice()))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_items(order_id, product_id, shop_id, quantity, price_snapshot)
+                VALUES (:orderId, :productId, :shopId, :quantity, :price)
+                """, rows);
+    }
+
+    /**
+     * Conditional stock decrement for every cart line in one UPDATE ... FROM (VALUES ...).
+     * Returns the products that had enough stock; a missing id means that line sold out concurrently.
+     */
+    private Set<Long> takeStock(List<CartItem> items) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder values = new StringBuilder();
+
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(:id").append(i).append(" AS INT), CAST(:qty").append(i).append(" AS INT))");
+            params.addValue("id" + i, item.getProduct().getProductId());
+            params.addValue("qty" + i, item.getQuantity());
+        }
+
+        String sql = """
+                UPDATE products p SET
+                    stock_quantity = p.stock_quantity - v.quantity,
+                    version = p.version + 1
+                FROM (VALUES %s) AS v(product_id, quantity)
+                WHERE p.product_id = v.product_id AND p.stock_quantity >= v.quantity
+                RETURNING p.product_id
+                """.formatted(values);
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql, params, Long.class));
+    }
+
+    /**
+     * Sum of price x quantity over the cart lines (prices as currently stored on the products)
+     */
+    static BigDecimal orderTotal(List<CartItem> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : items) {
+            total = total.add(item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
     /**
      * ✅ Format currency for Vietnamese Dong
      */
@@ -166,14 +270,16 @@ public class OrderService {
     }
 
     /**
-     * Cancel order (if not yet processed)
-     * ✅ FIX: Add proper validation and logging
+     * Cancel order (if not yet shipped)
+     * ✅ Status-based: the order is kept as CANCELLED instead of being deleted; the guarded transition
+     * makes sure stock is restored exactly once even if cancel races with shipping or a payment callback
      */
     @Transactional
     public void cancelOrder(Long orderId, User user) {
-        log.info("Cancelling order {} by user {}", orderId, user.getUsername());
+        log.debug("Cancelling order {} by user {}", orderId, user.getUsername());
 
-        Order order = orderRepository.findById(orderId)
+        // ✅ Locked: a shop shipping its part of the order waits for the cancel, or the cancel for the shipment
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
         // ✅ Verify user owns this order
@@ -181,34 +287,141 @@ public class OrderService {
             throw new UnauthorizedException("You don't have permission to cancel this order");
         }
 
-        // ✅ Check if order can be cancelled (example: within 1 hour of order)
-        long hoursSinceOrder = java.time.Duration.between(
-                order.getOrderDate().toInstant(),
-                java.time.Instant.now()
-        ).toHours();
-
-        if (hoursSinceOrder > 1) {
-            throw new IllegalStateException("Order can only be cancelled within 1 hour of placement");
+        OrderStatus from = order.getStatus();
+        if (!from.canMoveTo(OrderStatus.CANCELLED)) {
+            throw new IllegalStateException("Order can no longer be cancelled (status: " + from + ")");
+        }
+        if (orderRepository.anyShopShipped(orderId)) {
+            throw new IllegalStateException("Part of the order has already shipped and can no longer be cancelled");
         }
 
-        // ✅ Restore stock
-        List<OrderItem> orderItems = order.getOrderItems();
-        for (OrderItem item : orderItems) {
-            Product product = item.getProduct();
-            int restoredStock = product.getStockQuantity() + item.getQuantity();
-            product.setStockQuantity(restoredStock);
-            productRepository.save(product);
+        // Payment first: an in-flight charge blocks the cancel
+        paymentService.cancelForOrder(orderId);
 
-            log.info("Restored stock for product {}: {} -> {}",
-                    product.getProductId(),
-                    product.getStockQuantity() - item.getQuantity(),
-                    restoredStock
-            );
+        if (orderRepository.transitionStatus(orderId, from.name(), OrderStatus.CANCELLED.name()) == 0) {
+            throw new IllegalStateException("Order status changed, please reload");
         }
 
-        // Delete order
-        orderRepository.delete(order);
+        // ✅ Restore stock (one statement for every line)
+        productRepository.restockOrder(orderId);
+
+        // Last write, like recordOrder at checkout
+        salesRollupService.reverseOrder(orderId);
 
         log.info("Order {} cancelled successfully by user {}", orderId, user.getUsername());
     }
-}
\ No newline at end of file
+
+    /**
+     * Buyer confirms receipt of a shipped order
+     */
+    @Transactional
+    public void confirmDelivered(Long orderId, User user) {
+        Order order = getOrderById(orderId, user);
+        transition(order, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    }
+
+    /**
+     * Seller hands its lines of the order to the carrier. The order moves to SHIPPED once every shop
+     * with products in it has shipped; until then it stays PAID (or PLACED for cash on delivery).
+     */
+    @Transactional
+    public void markShipped(Long orderId, User owner) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+        // ✅ Locked: the last of several shops shipping at once must see the others' lines as shipped
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+        if (!orderRepository.containsShopProducts(orderId, shop.getShopId())) {
+            throw new UnauthorizedException("This order has no products from your shop");
+        }
+
+        OrderStatus from = order.getStatus();
+        if (!from.canMoveTo(OrderStatus.SHIPPED)) {
+            throw new IllegalStateException("Order cannot move from " + from + " to " + OrderStatus.SHIPPED);
+        }
+        if (from == OrderStatus.PLACED && transactionMethodOf(orderId) != PaymentMethod.COD) {
+            throw new IllegalStateException("Order is not paid yet");
+        }
+
+        if (orderRepository.markShopShipped(orderId, shop.getShopId()) == 0) {
+            throw new IllegalStateException("Your products in this order have already shipped");
+        }
+        if (orderRepository.hasUnshippedItems(orderId)) {
+            log.info("Order {}: shop {} shipped, waiting for the other shops", orderId, shop.getShopId());
+            return;
+        }
+        transition(order, from, OrderStatus.SHIPPED);
+    }
+
+    /**
+     * Orders of the owner's shop that are ready to ship, oldest first.
+     * Keyset pagination: pass the last orderId of a page as afterOrderId to get the next one.
+     */
+    @Transactional(readOnly = true)
+    public FulfilmentQueueResponse getFulfilmentQueue(User owner, Long afterOrderId, int size) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+        int limit = Math.min(Math.max(size, 1), 100);
+
+        List<FulfilmentQueueResponse.Entry> entries = orderRepository
+                .findFulfilmentQueue(shop.getShopId(), afterOrderId == null ? 0 : afterOrderId, limit).stream()
+                .map(row -> new FulfilmentQueueResponse.Entry(row.getOrderId(), row.getOrderDate(), row.getStatus(),
+                        row.getPaymentMethod(), row.getItemCount(), row.getSubtotal()))
+                .toList();
+
+        Long next = entries.size() == limit ? entries.get(entries.size() - 1).getOrderId() : null;
+        return new FulfilmentQueueResponse(entries, next);
+    }
+
+    /**
+     * Seller order feed: the shop's lines grouped per order, newest first.
+     * Two index-backed queries per page regardless of order volume (orders, then their lines).
+     */
+    @Transactional(readOnly = true)
+    public SellerOrderFeedResponse getSellerOrders(User owner, OrderStatus status, Long beforeOrderId, int size) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+        int limit = Math.min(Math.max(size, 1), 100);
+
+        List<OrderItemRepository.SellerOrderRow> rows = orderItemRepository.findSellerOrders(shop.getShopId(),
+                beforeOrderId == null ? Long.MAX_VALUE : beforeOrderId,
+                status == null ? null : status.name(),
+                limit);
+        if (rows.isEmpty()) {
+            return new SellerOrderFeedResponse(List.of(), null);
+        }
+
+        Map<Long, List<SellerOrderFeedResponse.Line>> lines = new HashMap<>();
+        orderItemRepository.findSellerLines(shop.getShopId(),
+                        rows.stream().map(OrderItemRepository.SellerOrderRow::getOrderId).toList())
+                .forEach(line -> lines.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>())
+                        .add(new SellerOrderFeedResponse.Line(line.getProductId(), line.getProductName(),
+                                line.getQuantity(), line.getPrice())));
+
+        List<SellerOrderFeedResponse.Entry> entries = rows.stream()
+                .map(row -> new SellerOrderFeedResponse.Entry(row.getOrderId(), row.getOrderDate(), row.getStatus(),
+                        row.getBuyerName(), row.getItemCount(), row.getSubtotal(),
+                        lines.getOrDefault(row.getOrderId(), List.of())))
+                .toList();
+
+        Long next = entries.size() == limit ? entries.get(entries.size() - 1).getOrderId() : null;
+        return new SellerOrderFeedResponse(entries, next);
+    }
+
+    private void transition(Order order, OrderStatus from, OrderStatus to) {
+        if (!from.canMoveTo(to)) {
+            throw new IllegalStateException("Order cannot move from " + from + " to " + to);
+        }
+        if (orderRepository.transitionStatus(order.getOrderId(), from.name(), to.name()) == 0) {
+            throw new IllegalStateException("Order status changed, please reload");
+        }
+        log.info("Order {}: {} -> {}", order.getOrderId(), from, to);
+    }
+
+    private PaymentMethod transactionMethodOf(Long orderId) {
+        return transactionRepository.findByOrderOrderId(orderId)
+                .map(Transaction::getTransactionMethod)
+                .orElse(PaymentMethod.COD);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bkplatform.service;
+
+import com.bkplatform.model.PaymentMethod;
+
+import java.math.BigDecimal;
+
+/**
+ * Outbound side of a payment provider. Called only from paymentExecutor threads, never from a
+ * request thread and never inside a database transaction.
+ */
+public interface PaymentGateway {
+
+    enum Outcome {
+        // Settled synchronously
+        SUCCEEDED,
+        DECLINED,
+        // Accepted; the result arrives later through POST /api/payments/callback
+        ACCEPTED,
+        // Status lookup only: the provider has no charge for this transaction
+        NOT_FOUND
+    }
+
+    record ChargeRequest(Long transactionId, Long orderId, BigDecimal amount, PaymentMethod method) {
+    }
+
+    record ChargeResult(Outcome outcome, String reference, String message) {
+    }
+
+    record RefundRequest(Long transactionId, String reference, BigDecimal amount) {
+    }
+
+    ChargeResult charge(ChargeRequest request);
+
+    /**
+     * Current state of a charge at the provider, by our transaction id (the idempotency key of the charge)
+     * and the provider reference when one was recorded. Used to settle payments stuck in processing.
+     */
+    ChargeResult status(Long transactionId, String reference);
+
+    /**
+     * Gives the full amount of a settled charge back, keyed by our transaction id so a repeated call refunds
+     * once. SUCCEEDED when the provider confirmed the refund; throws when the outcome is unknown.
+     */
+    ChargeResult refund(RefundRequest request);
+}
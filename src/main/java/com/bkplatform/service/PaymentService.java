@@ -0,0 +1,474 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.PaymentCallbackRequest;
+import com.bkplatform.dto.PaymentResponse;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.exception.UnauthorizedException;
+import com.bkplatform.model.Order;
+import com.bkplatform.model.OrderStatus;
+import com.bkplatform.model.PaymentMethod;
+import com.bkplatform.model.PaymentStatus;
+import com.bkplatform.model.Transaction;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.OrderRepository;
+import com.bkplatform.repository.TransactionRepository;
+import com.bkplatform.service.PaymentGateway.ChargeRequest;
+import com.bkplatform.service.PaymentGateway.ChargeResult;
+import com.bkplatform.service.PaymentGateway.Outcome;
+import com.bkplatform.service.PaymentGateway.RefundRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Payment transactions and their settlement.
+ * The transaction row is written with the order; talking to the gateway happens afterwards on the bounded
+ * paymentExecutor, so checkout never waits for a provider. Every status change is a conditional UPDATE
+ * (see TransactionRepository.transition), and no DB transaction is open while the gateway is called.
+ */
+@Slf4j
+@Service
+public class PaymentService {
+
+    private final TransactionRepository transactionRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentGateway paymentGateway;
+    private final TaskExecutor paymentExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.payments.callback-secret}")
+    private String callbackSecret;
+
+    @Value("${app.payments.stale-after:PT2M}")
+    private Duration staleAfter;
+
+    @Value("${app.payments.processing-timeout:PT10M}")
+    private Duration processingTimeout;
+
+    public PaymentService(TransactionRepository transactionRepository,
+                          OrderRepository orderRepository,
+                          PaymentGateway paymentGateway,
+                          @Qualifier("paymentExecutor") TaskExecutor paymentExecutor,
+                          PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.orderRepository = orderRepository;
+        this.paymentGateway = paymentGateway;
+        this.paymentExecutor = paymentExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Called inside the checkout transaction. Online payments are charged once it commits.
+     */
+    public Transaction createForOrder(Order order, PaymentMethod method, BigDecimal shippingCost) {
+        BigDecimal total = order.getOrderCost().add(shippingCost == null ? BigDecimal.ZERO : shippingCost);
+
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .order(order)
+                .transactionMethod(method)
+                .totalCost(total)
+                .build());
+
+        if (method.isOnline()) {
+            chargeAfterCommit(transaction.getTransactionId());
+        }
+        return transaction;
+    }
+
+    public PaymentResponse getForOrder(Long orderId, User user) {
+        Transaction transaction = transactionRepository.findByOrderOrderId(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found for order " + orderId));
+
+        if (!transaction.getOrder().getUser().getUserId().equals(user.getUserId())) {
+            throw new UnauthorizedException("You don't have permission to view this payment");
+        }
+        return toResponse(transaction);
+    }
+
+    /**
+     * Failed online payment: back to pending and charge again
+     */
+    public PaymentResponse retry(Long orderId, User user) {
+        PaymentResponse current = getForOrder(orderId, user);
+        if (PaymentMethod.valueOf(current.getMethod()) == PaymentMethod.COD) {
+            throw new InvalidDataException("Cash on delivery payments are settled by the courier");
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                transition(current.getTransactionId(), PaymentStatus.FAILED, PaymentStatus.PENDING));
+        chargeAfterCommit(current.getTransactionId());
+
+        current.setStatus(PaymentStatus.PENDING.name());
+        return current;
+    }
+
+    /**
+     * Called inside the order cancel transaction. Unsettled payments are cancelled, settled ones refunded
+     * (at the gateway, once the cancel commits);
+     * a charge that is in flight at the gateway blocks the cancel (409) until it settles or
+     * sweepStaleProcessing times it out.
+     */
+    public void cancelForOrder(Long orderId) {
+        transactionRepository.findByOrderOrderId(orderId).ifPresent(transaction -> {
+            PaymentStatus status = transaction.getTransactionStatus();
+            switch (status) {
+                case PENDING, FAILED -> transition(transaction.getTransactionId(), status, PaymentStatus.CANCELLED);
+                case PAID -> refund(transaction);
+                case PROCESSING -> throw new IllegalStateException("Payment is being processed, try again shortly");
+                case CANCELLED, REFUNDING, REFUNDED -> log.debug("Payment {} already {}", transaction.getTransactionId(), status);
+            }
+        });
+    }
+
+    /**
+     * Guarded status change; IllegalStateException (409) when the payment is no longer in the expected state
+     */
+    public void transition(Long transactionId, PaymentStatus from, PaymentStatus to) {
+        if (!tryTransition(transactionId, from, to)) {
+            throw new IllegalStateException("Payment " + transactionId + " is no longer " + from);
+        }
+    }
+
+    /**
+     * Same as transition, for workers: false when another worker or callback got there first
+     */
+    private boolean tryTransition(Long transactionId, PaymentStatus from, PaymentStatus to) {
+        if (!from.canMoveTo(to)) {
+            throw new IllegalStateException("Payment cannot move from " + from + " to " + to);
+        }
+        boolean moved = transactionRepository.transition(transactionId, from.dbValue(), to.dbValue()) > 0;
+        if (moved) {
+            log.debug("Payment {}: {} -> {}", transactionId, from, to);
+        }
+        return moved;
+    }
+
+    // ========================================
+    // Gateway side (paymentExecutor threads)
+    // ========================================
+
+    private void chargeAfterCommit(Long transactionId) {
+        afterCommit(() -> {
+            try {
+                paymentExecutor.execute(() -> charge(transactionId));
+            } catch (TaskRejectedException e) {
+                // Still pending: the stale-payment sweep picks it up
+                log.warn("Payment queue full, transaction {} will be charged by the recovery sweep", transactionId);
+            }
+        });
+    }
+
+    private void refundAfterCommit(Long transactionId) {
+        afterCommit(() -> {
+            try {
+                paymentExecutor.execute(() -> refundAtGateway(transactionId));
+            } catch (TaskRejectedException e) {
+                // Still refunding: the refund sweep picks it up
+                log.warn("Payment queue full, transaction {} will be refunded by the recovery sweep", transactionId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable submit) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    void charge(Long transactionId) {
+        // 1. Claim the payment (short transaction)
+        Transaction transaction = transactionTemplate.execute(status -> {
+            boolean claimed = tryTransition(transactionId, PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+            return claimed ? transactionRepository.findById(transactionId).orElse(null) : null;
+        });
+        if (transaction == null) {
+            log.debug("Payment {} already claimed or not pending", transactionId);
+            return;
+        }
+
+        // 2. Call the provider with no transaction and no pooled connection held
+        ChargeResult result;
+        try {
+            result = paymentGateway.charge(new ChargeRequest(transactionId, transaction.getOrder().getOrderId(),
+                    transaction.getTotalCost(), transaction.getTransactionMethod()));
+        } catch (Exception e) {
+            // Timeout or transport error: the provider may still have taken the money, so this is not a decline.
+            // Left in processing for sweepStaleProcessing, which settles it from the provider's record
+            // (FAILED and a retry here could charge twice).
+            log.error("Gateway error for payment {}, outcome unknown, left in processing", transactionId, e);
+            return;
+        }
+
+        // 3. Record the outcome (short transaction); ACCEPTED waits for the provider callback
+        transactionTemplate.executeWithoutResult(status -> {
+            if (result.reference() != null) {
+                transactionRepository.setGatewayReference(transactionId, result.reference());
+            }
+            switch (result.outcome()) {
+                case SUCCEEDED -> {
+                    if (tryTransition(transactionId, PaymentStatus.PROCESSING, PaymentStatus.PAID)) {
+                        onPaid(transaction);
+                    }
+                }
+                case DECLINED, NOT_FOUND -> tryTransition(transactionId, PaymentStatus.PROCESSING, PaymentStatus.FAILED);
+                case ACCEPTED -> log.debug("Payment {} accepted by gateway, awaiting callback", transactionId);
+            }
+        });
+        log.info("Payment {} charged: {}", transactionId, result.outcome());
+    }
+
+    /**
+     * Queue a verified provider callback. Throws TaskRejectedException when the queue is full,
+     * so the provider gets a 503 and retries later.
+     */
+    public void acceptCallback(PaymentCallbackRequest callback) {
+        paymentExecutor.execute(() -> applyCallback(callback));
+    }
+
+    void applyCallback(PaymentCallbackRequest callback) {
+        PaymentStatus target = "succeeded".equalsIgnoreCase(callback.getStatus()) ? PaymentStatus.PAID : PaymentStatus.FAILED;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Transaction transaction = transactionRepository.findById(callback.getTransactionId()).orElse(null);
+            if (transaction == null) {
+                log.warn("Callback for unknown payment {}", callback.getTransactionId());
+                return;
+            }
+            if (transaction.getTransactionStatus() == target) {
+                // Providers deliver callbacks at least once
+                log.debug("Duplicate callback for payment {}", callback.getTransactionId());
+                return;
+            }
+            if (callback.getAmount() == null || callback.getAmount().compareTo(transaction.getTotalCost()) != 0) {
+                log.warn("Callback amount {} does not match payment {} ({}), ignored",
+                        callback.getAmount(), transaction.getTransactionId(), transaction.getTotalCost());
+                return;
+            }
+            if (!tryTransition(transaction.getTransactionId(), PaymentStatus.PROCESSING, target)) {
+                log.warn("Callback for payment {} ignored, status is {}",
+                        transaction.getTransactionId(), transaction.getTransactionStatus());
+                return;
+            }
+            if (target == PaymentStatus.PAID) {
+                onPaid(transaction);
+            }
+            log.info("Payment {} settled by callback: {}", transaction.getTransactionId(), target);
+        });
+    }
+
+    /**
+     * HMAC-SHA256 of the raw callback body, hex encoded, compared in constant time
+     */
+    public boolean isValidSignature(byte[] body, String signature) {
+        if (signature == null || signature.isBlank()) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(callbackSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = HexFormat.of().formatHex(mac.doFinal(body)).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(expected, signature.trim().toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * Re-queue online payments whose after-commit task was lost (restart, full queue)
+     */
+    @Scheduled(fixedDelayString = "${app.payments.sweep-interval-ms:60000}",
+            initialDelayString = "${app.payments.sweep-interval-ms:60000}")
+    public void sweepStalePayments() {
+        List<Long> stale = transactionRepository.findStalePending(Instant.now().minus(staleAfter), 100);
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        log.info("Re-queueing {} stale pending payments", stale.size());
+        for (Long transactionId : stale) {
+            try {
+                paymentExecutor.execute(() -> charge(transactionId));
+            } catch (TaskRejectedException e) {
+                log.warn("Payment queue full, stopping sweep");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Settle charges stuck in processing (worker died mid-call, callback lost) from the gateway's record
+     */
+    @Scheduled(fixedDelayString = "${app.payments.sweep-interval-ms:60000}",
+            initialDelayString = "${app.payments.sweep-interval-ms:60000}")
+    public void sweepStaleProcessing() {
+        List<Long> stuck = transactionRepository.findStaleProcessing(Instant.now().minus(processingTimeout), 100);
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        log.info("Checking {} payments stuck in processing with the gateway", stuck.size());
+        for (Long transactionId : stuck) {
+            try {
+                paymentExecutor.execute(() -> settleStuck(transactionId));
+            } catch (TaskRejectedException e) {
+                log.warn("Payment queue full, stopping sweep");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Paid at the gateway → PAID; still in flight there → left for the callback; declined or never received
+     * → FAILED, so the buyer can retry or cancel instead of hitting 409 forever. A failed lookup settles
+     * nothing: the charge may have gone through, so the payment stays in processing for the next sweep.
+     */
+    void settleStuck(Long transactionId) {
+        Transaction transaction = transactionRepository.findById(transactionId).orElse(null);
+        if (transaction == null || transaction.getTransactionStatus() != PaymentStatus.PROCESSING) {
+            return;
+        }
+
+        // Gateway call with no transaction open, like charge()
+        Outcome outcome;
+        try {
+            outcome = paymentGateway.status(transactionId, transaction.getGatewayReference()).outcome();
+        } catch (Exception e) {
+            log.warn("Gateway status check failed for payment {}, left in processing: {}", transactionId, e.getMessage());
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            switch (outcome) {
+                case SUCCEEDED -> {
+                    if (tryTransition(transactionId, PaymentStatus.PROCESSING, PaymentStatus.PAID)) {
+                        onPaid(transaction);
+                        log.info("Stuck payment {} confirmed paid by gateway", transactionId);
+                    }
+                }
+                case ACCEPTED -> log.info("Payment {} still in flight at the gateway, awaiting callback", transactionId);
+                case DECLINED, NOT_FOUND -> {
+                    if (tryTransition(transactionId, PaymentStatus.PROCESSING, PaymentStatus.FAILED)) {
+                        log.warn("Payment {} timed out in processing ({}), marked failed", transactionId, outcome);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-queue refunds the gateway has not confirmed (task lost, provider error); the refund is idempotent
+     * per transaction at the provider, so asking again never pays out twice
+     */
+    @Scheduled(fixedDelayString = "${app.payments.sweep-interval-ms:60000}",
+            initialDelayString = "${app.payments.sweep-interval-ms:60000}")
+    public void sweepStaleRefunds() {
+        List<Long> stale = transactionRepository.findStaleRefunding(Instant.now().minus(staleAfter), 100);
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        log.info("Re-queueing {} unconfirmed refunds", stale.size());
+        for (Long transactionId : stale) {
+            try {
+                paymentExecutor.execute(() -> refundAtGateway(transactionId));
+            } catch (TaskRejectedException e) {
+                log.warn("Payment queue full, stopping sweep");
+                return;
+            }
+        }
+    }
+
+    /**
+     * REFUNDING → REFUNDED once the gateway confirms; otherwise left refunding for sweepStaleRefunds
+     */
+    void refundAtGateway(Long transactionId) {
+        Transaction transaction = transactionRepository.findById(transactionId).orElse(null);
+        if (transaction == null || transaction.getTransactionStatus() != PaymentStatus.REFUNDING) {
+            return;
+        }
+
+        // Gateway call with no transaction open, like charge()
+        ChargeResult result;
+        try {
+            result = paymentGateway.refund(new RefundRequest(transactionId, transaction.getGatewayReference(),
+                    transaction.getTotalCost()));
+        } catch (Exception e) {
+            log.warn("Gateway refund failed for payment {}, left refunding: {}", transactionId, e.getMessage());
+            return;
+        }
+        if (result.outcome() != Outcome.SUCCEEDED) {
+            log.error("Gateway did not refund payment {} ({}: {}), left refunding",
+                    transactionId, result.outcome(), result.message());
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (tryTransition(transactionId, PaymentStatus.REFUNDING, PaymentStatus.REFUNDED)) {
+                log.info("Payment {} refunded", transactionId);
+            }
+        });
+    }
+
+    /**
+     * Settled: the order moves to PAID. If the buyer cancelled while the charge was in flight,
+     * the money goes back instead.
+     */
+    private void onPaid(Transaction transaction) {
+        Long orderId = transaction.getOrder().getOrderId();
+        int updated = orderRepository.transitionStatus(orderId, OrderStatus.PLACED.name(), OrderStatus.PAID.name());
+        if (updated == 0) {
+            log.warn("Order {} was no longer PLACED when payment {} settled, refunding",
+                    orderId, transaction.getTransactionId());
+            refund(transaction);
+        }
+    }
+
+    /**
+     * PAID → REFUNDING inside the caller's transaction; the gateway refund runs on a payment worker
+     * once it commits (refundAtGateway)
+     */
+    private void refund(Transaction transaction) {
+        if (tryTransition(transaction.getTransactionId(), PaymentStatus.PAID, PaymentStatus.REFUNDING)) {
+            refundAfterCommit(transaction.getTransactionId());
+        }
+    }
+
+    private static PaymentResponse toResponse(Transaction transaction) {
+        return new PaymentResponse(
+                transaction.getTransactionId(),
+                transaction.getOrder().getOrderId(),
+                transaction.getTransactionMethod().name(),
+                transaction.getTransactionStatus().name(),
+                transaction.getTotalCost(),
+                transaction.getTaxAmount(),
+                transaction.getTransactionDate()
+        );
+    }
+}
@@ -0,0 +1,245 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.ProductImageResponse;
+import com.bkplatform.dto.ProductListItemResponse;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.exception.UnauthorizedException;
+import com.bkplatform.model.Product;
+import com.bkplatform.model.ProductImage;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.ProductImageRepository;
+import com.bkplatform.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Product images: upload into the content-addressed store, list, delete, primary image,
+ * and the page-wide lookups used by product listings (one query per page, never per product).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImageService {
+
+    static final String IMAGE_URL_PREFIX = "/api/images/";
+
+    private final ProductImageRepository productImageRepository;
+    private final ProductRepository productRepository;
+    private final ImageStorageService storageService;
+    private final ImageVariantService variantService;
+    private final ShopService shopService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.images.max-per-product:10}")
+    private int maxPerProduct;
+
+    public List<ProductImageResponse> getImages(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return productImageRepository.findByProductProductIdOrderByImageIdAsc(productId).stream()
+                .map(ProductImageService::toResponse)
+                .toList();
+    }
+
+    /**
+     * Store an uploaded image and attach it to the product (owner only).
+     * ✅ The file is streamed from the multipart part into the store, never held as a byte[]
+     * ✅ No transaction (and no pooled connection) is held while the file is stored: checks and the
+     * row insert are two short transactions around it. A file whose row is never written stays in the
+     * content-addressed store, like the file of a deleted image.
+     */
+    public ProductImageResponse upload(Long productId, MultipartFile file, String description, User owner) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidDataException("Image file is required");
+        }
+        // Fail fast before reading up to 10 MB; repeated below, where the row is written
+        transactionTemplate.executeWithoutResult(status -> checkCanAttach(productId, owner));
+
+        ImageStorageService.StoredImage stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = storageService.store(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded image", e);
+        }
+
+        ProductImage image = transactionTemplate.execute(status -> {
+            Product product = checkCanAttach(productId, owner);
+
+            ProductImage saved = productImageRepository.save(ProductImage.builder()
+                    .product(product)
+                    .imageUrl(IMAGE_URL_PREFIX + stored.hash())
+                    .imageType(stored.contentType())
+                    .description(description != null && !description.isBlank() ? description.trim() : null)
+                    .build());
+
+            // ✅ First image becomes the primary one (listing thumbnail)
+            productRepository.setPrimaryImageIfAbsent(productId, saved.getImageId());
+
+            variantService.generateAfterCommit(stored.hash());
+            shopService.evictStorefront(product.getShop().getShopId());
+            return saved;
+        });
+
+        log.info("Uploaded image {} ({} bytes) for product {}", stored.hash(), stored.size(), productId);
+        return toResponse(image);
+    }
+
+    /**
+     * Detach an image from the product. The stored file stays: other products may share the same content.
+     */
+    @Transactional
+    public void delete(Long productId, Long imageId, User owner) {
+        Product product = loadOwnProduct(productId, owner);
+
+        ProductImage image = productImageRepository.findById(imageId)
+                .filter(i -> i.getProduct().getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + imageId));
+
+        // Hand the primary role to the oldest remaining image before the row goes
+        productRepository.replacePrimaryImage(productId, imageId);
+        productImageRepository.delete(image);
+        shopService.evictStorefront(product.getShop().getShopId());
+        log.info("Deleted image {} of product {}", imageId, productId);
+    }
+
+    /**
+     * Make an existing image the product's primary image (owner only)
+     */
+    @Transactional
+    public void setPrimary(Long productId, Long imageId, User owner) {
+        Product product = loadOwnProduct(productId, owner);
+
+        productImageRepository.findById(imageId)
+                .filter(i -> i.getProduct().getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + imageId));
+
+        productRepository.setPrimaryImage(productId, imageId);
+        shopService.evictStorefront(product.getShop().getShopId());
+        log.info("Image {} is now primary for product {}", imageId, productId);
+    }
+
+    /**
+     * All images of a page of products, grouped by product id, in one IN query
+     */
+    public Map<Long, List<ProductImageResponse>> loadImagesForPage(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<ProductImageResponse>> result = new HashMap<>();
+        for (ProductImageRepository.ImageRow row : productImageRepository.findRowsByProductIds(productIds)) {
+            result.computeIfAbsent(row.getProductId(), id -> new ArrayList<>()).add(new ProductImageResponse(
+                    row.getImageId(),
+                    row.getProductId(),
+                    row.getImageUrl(),
+                    thumbnailUrl(row.getImageUrl()),
+                    row.getImageType(),
+                    row.getDescription()
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * Thumbnail URL per product for a page, resolved from primary_image_id by primary key.
+     * One query for the page, none when no product on it has an image.
+     */
+    public Map<Long, String> getThumbnailUrls(Collection<Product> products) {
+        List<Long> imageIds = products.stream()
+                .map(Product::getPrimaryImageId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (imageIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, String> urlByImage = new HashMap<>();
+        productImageRepository.findUrlsByImageIds(imageIds)
+                .forEach(img -> urlByImage.put(img.getImageId(), thumbnailUrl(img.getImageUrl())));
+
+        Map<Long, String> result = new HashMap<>();
+        for (Product product : products) {
+            String url = urlByImage.get(product.getPrimaryImageId());
+            if (url != null) {
+                result.put(product.getProductId(), url);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Listing items for a page of products, each with its thumbnail
+     */
+    public List<ProductListItemResponse> toListItems(List<Product> products) {
+        Map<Long, String> thumbnails = getThumbnailUrls(products);
+        return products.stream()
+                .map(p -> new ProductListItemResponse(p, thumbnails.get(p.getProductId()), null))
+                .toList();
+    }
+
+    /**
+     * Fill every image of a page of listing items (search with images=true)
+     */
+    public void attachImages(Collection<ProductListItemResponse> items) {
+        Map<Long, List<ProductImageResponse>> images = loadImagesForPage(
+                items.stream().map(item -> item.getProduct().getProductId()).toList());
+        items.forEach(item -> item.setImages(images.getOrDefault(item.getProduct().getProductId(), List.of())));
+    }
+
+    private Product checkCanAttach(Long productId, User owner) {
+        Product product = loadOwnProduct(productId, owner);
+        if (productImageRepository.countByProductProductId(productId) >= maxPerProduct) {
+            throw new InvalidDataException("A product can have at most " + maxPerProduct + " images");
+        }
+        return product;
+    }
+
+    private Product loadOwnProduct(Long productId, User owner) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        // ✅ Check ownership
+        if (!product.getShop().getOwner().getUserId().equals(owner.getUserId())) {
+            throw new UnauthorizedException("You don't have permission to manage images of this product");
+        }
+        return product;
+    }
+
+    /**
+     * Stored images get the thumb variant; external URLs (legacy rows) are returned as-is
+     */
+    static String thumbnailUrl(String imageUrl) {
+        if (imageUrl != null && imageUrl.startsWith(IMAGE_URL_PREFIX)) {
+            return imageUrl + "?variant=thumb";
+        }
+        return imageUrl;
+    }
+
+    private static ProductImageResponse toResponse(ProductImage image) {
+        return new ProductImageResponse(
+                image.getImageId(),
+                image.getProduct().getProductId(),
+                image.getImageUrl(),
+                thumbnailUrl(image.getImageUrl()),
+                image.getImageType(),
+                image.getDescription()
+        );
+    }
+}
@@ -0,0 +1,508 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.ProductImportResponse;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.model.Category;
+import com.bkplatform.model.Product;
+import com.bkplatform.model.Shop;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.CategoryRepository;
+import com.bkplatform.repository.ShopRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import / export for shop owners.
+ *
+ * Import reads the upload one row at a time (CSV or NDJSON), validates it against the same rules
+ * as ProductService.create, resolves categories from a map loaded once, and inserts in JDBC batches,
+ * one transaction per batch. Invalid rows are reported by row number and never abort the file;
+ * a batch the database still rejects is retried row by row so only the offending rows fail.
+ * Export streams the shop's products from a database cursor straight into the response.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Explicit format parameter first, then the uploaded file name
+         */
+        public static Format resolve(String format, String fileName) {
+            String value = format != null ? format : fileName;
+            if (value != null) {
+                String lower = value.toLowerCase(Locale.ROOT);
+                if (lower.endsWith("csv")) {
+                    return CSV;
+                }
+                if (lower.endsWith("ndjson") || lower.endsWith("jsonl")) {
+                    return NDJSON;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported format, use csv or ndjson");
+        }
+    }
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (shop_id, name, price, description, stock_quantity, created_date, category_id)
+            VALUES (:shopId, :name, :price, :description, :stockQuantity, :createdDate, :categoryId)
+            """;
+
+    private static final String EXPORT_SQL = """
+            SELECT p.product_id, p.name, p.price, p.description, p.stock_quantity, p.category_id, c.category_name
+            FROM products p LEFT JOIN categories c ON c.category_id = p.category_id
+            WHERE p.shop_id = ?
+            ORDER BY p.product_id
+            """;
+
+    // products.price is NUMERIC(12,2); InventoryService checks bulk price updates against the same limits
+    static final int PRICE_INTEGER_DIGITS = 10;
+    static final int PRICE_SCALE = 2;
+
+    private static final String[] EXPORT_COLUMNS =
+            {"productId", "name", "price", "description", "stockQuantity", "categoryId", "categoryName"};
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ShopRepository shopRepository;
+    private final ProductService productService;
+    private final ShopService shopService;
+    private final ProductSuggestIndex suggestIndex;
+    private final ObjectReader rowReader;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-rows:50000}")
+    private int maxRows;
+
+    @Value("${app.import.max-errors:100}")
+    private int maxErrors;
+
+    public ProductImportService(DataSource dataSource,
+                                NamedParameterJdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CategoryRepository categoryRepository,
+                                ShopRepository shopRepository,
+                                ProductService productService,
+                                ShopService shopService,
+                                ProductSuggestIndex suggestIndex,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Own template so exports stream through a cursor instead of buffering every row
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.categoryRepository = categoryRepository;
+        this.shopRepository = shopRepository;
+        this.productService = productService;
+        this.shopService = shopService;
+        this.suggestIndex = suggestIndex;
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(ImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Import products into the owner's shop (created on first use, like ProductService.create)
+     */
+    public ProductImportResponse importProducts(InputStream input, Format format, User owner) {
+        long start = System.currentTimeMillis();
+        Shop shop = transactionTemplate.execute(status -> productService.getOrCreateShop(owner));
+        CategoryLookup categories = loadCategories();
+
+        ImportRun run = new ImportRun(shop.getShopId());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, categories, run);
+            } else {
+                readNdjson(reader, categories, run);
+            }
+        } catch (IOException e) {
+            // Rows read so far are still imported; the rest of the file is reported as unreadable
+            run.fail(run.response.getTotalRows() + 1, "Could not read the rest of the file: " + e.getMessage(), maxErrors);
+        }
+
+        flush(run);
+        if (run.response.getImported() > 0) {
+            shopService.evictStorefront(shop.getShopId());
+        }
+
+        ProductImportResponse response = run.response;
+        log.info("Imported {} of {} products into shop {} ({} failed) in {}ms",
+                response.getImported(), response.getTotalRows(), shop.getShopId(),
+                response.getFailed(), System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private void readCsv(BufferedReader reader, CategoryLookup categories, ImportRun run) throws IOException {
+        CsvRowReader csv = new CsvRowReader(reader, 10_000);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new InvalidDataException("Import file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(headerKey(header.get(i)), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new InvalidDataException("CSV header must contain at least name and price");
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null && withinLimit(run)) {
+            long row = csv.getLineNumber();
+            run.countRow();
+            try {
+                ImportRow parsed = new ImportRow(
+                        field(fields, columns, "name"),
+                        decimal(field(fields, columns, "price")),
+                        field(fields, columns, "description"),
+                        integer(field(fields, columns, "stockquantity")),
+                        longValue(field(fields, columns, "categoryid")),
+                        field(fields, columns, "categoryname"));
+                accept(parsed, row, categories, run);
+            } catch (NumberFormatException e) {
+                run.fail(row, "Invalid number: " + e.getMessage(), maxErrors);
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, CategoryLookup categories, ImportRun run) throws IOException {
+        String line;
+        long row = 0;
+        while ((line = reader.readLine()) != null && withinLimit(run)) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.countRow();
+            try {
+                accept(rowReader.readValue(line), row, categories, run);
+            } catch (JsonProcessingException e) {
+                run.fail(row, "Invalid JSON: " + e.getOriginalMessage(), maxErrors);
+            }
+        }
+    }
+
+    private boolean withinLimit(ImportRun run) {
+        if (run.response.getTotalRows() < maxRows) {
+            return true;
+        }
+        run.response.getErrors().add(new ProductImportResponse.RowError(
+                run.response.getTotalRows() + 1, "Row limit of " + maxRows + " reached, remaining rows skipped"));
+        return false;
+    }
+
+    /**
+     * Validate one row (same rules as ProductService.create) and queue it for the next batch
+     */
+    private void accept(ImportRow row, long rowNumber, CategoryLookup categories, ImportRun run) {
+        String name = row.name() != null ? row.name().trim() : "";
+        if (name.isEmpty()) {
+            run.fail(rowNumber, "Product name is required", maxErrors);
+            return;
+        }
+        if (name.length() > 150) {
+            run.fail(rowNumber, "Product name must be at most 150 characters", maxErrors);
+            return;
+        }
+        if (row.price() == null || row.price().compareTo(BigDecimal.ZERO) <= 0) {
+            run.fail(rowNumber, "Price must be greater than 0", maxErrors);
+            return;
+        }
+        // ✅ Checked here: one out-of-range value would otherwise reject its whole batch
+        BigDecimal price = row.price().stripTrailingZeros();
+        if (price.scale() > PRICE_SCALE) {
+            run.fail(rowNumber, "Price must have at most " + PRICE_SCALE + " decimal places", maxErrors);
+            return;
+        }
+        if (price.precision() - price.scale() > PRICE_INTEGER_DIGITS) {
+            run.fail(rowNumber, "Price must have at most " + PRICE_INTEGER_DIGITS + " digits before the decimal point", maxErrors);
+            return;
+        }
+        if (row.stockQuantity() != null && row.stockQuantity() < 0) {
+            run.fail(rowNumber, "Stock quantity cannot be negative", maxErrors);
+            return;
+        }
+
+        Long categoryId = null;
+        if (row.categoryId() != null) {
+            if (!categories.ids().contains(row.categoryId())) {
+                run.fail(rowNumber, "Category not found with id: " + row.categoryId(), maxErrors);
+                return;
+            }
+            categoryId = row.categoryId();
+        } else if (row.categoryName() != null && !row.categoryName().isBlank()) {
+            categoryId = categories.byName().get(row.categoryName().trim().toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                run.fail(rowNumber, "Category not found: " + row.categoryName().trim(), maxErrors);
+                return;
+            }
+        }
+
+        String description = row.description() != null && !row.description().isBlank()
+                ? row.description().trim() : null;
+
+        run.batch.add(new PendingRow(rowNumber, name, new MapSqlParameterSource()
+                .addValue("shopId", run.shopId)
+                .addValue("name", name)
+                .addValue("price", row.price())
+                .addValue("description", description)
+                .addValue("stockQuantity", row.stockQuantity() != null ? row.stockQuantity() : 0)
+                .addValue("createdDate", Timestamp.from(Instant.now()))
+                .addValue("categoryId", categoryId)));
+
+        if (run.batch.size() >= batchSize) {
+            flush(run);
+        }
+    }
+
+    /**
+     * Insert the pending rows as one JDBC batch in its own transaction.
+     * If the database rejects the batch, each row is retried on its own so only the bad ones fail.
+     */
+    private void flush(ImportRun run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = new ArrayList<>(run.batch);
+        run.batch.clear();
+
+        try {
+            insert(rows);
+            run.response.setImported(run.response.getImported() + rows.size());
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Import batch of {} rows rejected, retrying row by row: {}",
+                    rows.size(), e.getMostSpecificCause().getMessage());
+        }
+
+        for (PendingRow row : rows) {
+            try {
+                insert(List.of(row));
+                run.response.setImported(run.response.getImported() + 1);
+            } catch (DataAccessException e) {
+                run.fail(row.rowNumber(), "Rejected by database: " + e.getMostSpecificCause().getMessage(), maxErrors);
+            }
+        }
+    }
+
+    private void insert(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(INSERT_SQL,
+                    rows.stream().map(PendingRow::params).toArray(MapSqlParameterSource[]::new),
+                    keys, new String[]{"product_id"});
+
+            // ✅ Keep typeahead current; applied only if the batch commits
+            List<Map<String, Object>> generated = keys.getKeyList();
+            for (int i = 0; i < generated.size(); i++) {
+                Product product = new Product();
+                product.setProductId(((Number) generated.get(i).get("product_id")).longValue());
+                product.setName(rows.get(i).name());
+                suggestIndex.upsertAfterCommit(product);
+            }
+        });
+    }
+
+    private CategoryLookup loadCategories() {
+        Map<String, Long> byName = new HashMap<>();
+        Set<Long> ids = new HashSet<>();
+        for (Category category : categoryRepository.findAll()) {
+            ids.add(category.getCategoryId());
+            byName.put(category.getCategoryName().trim().toLowerCase(Locale.ROOT), category.getCategoryId());
+        }
+        return new CategoryLookup(ids, byName);
+    }
+
+    /**
+     * Shop of the owner, resolved before the export response starts streaming
+     */
+    public Long getOwnShopId(User owner) {
+        return shopRepository.findByOwner(owner)
+                .map(Shop::getShopId)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+    }
+
+    /**
+     * Write every product of the shop to the output as rows are read from the cursor
+     */
+    public void export(Long shopId, Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) {
+            writer.write(String.join(",", EXPORT_COLUMNS));
+            writer.write("\n");
+            streamRows(shopId, row -> {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csvEscape(row[i]));
+                }
+                writer.write('\n');
+            });
+        } else {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+            streamRows(shopId, row -> {
+                json.writeStartObject();
+                json.writeNumberField("productId", Long.parseLong(row[0]));
+                json.writeStringField("name", row[1]);
+                json.writeNumberField("price", new BigDecimal(row[2]));
+                json.writeStringField("description", row[3]);
+                json.writeNumberField("stockQuantity", row[4] != null ? Integer.parseInt(row[4]) : 0);
+                if (row[5] != null) {
+                    json.writeNumberField("categoryId", Long.parseLong(row[5]));
+                    json.writeStringField("categoryName", row[6]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            });
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void streamRows(Long shopId, RowWriter rowWriter) throws IOException {
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status ->
+                    streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+                        String[] row = new String[EXPORT_COLUMNS.length];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = rs.getString(i + 1);
+                        }
+                        try {
+                            rowWriter.write(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, shopId));
+        } catch (UncheckedIOException e) {
+            // Client went away: stop reading and release the cursor
+            throw e.getCause();
+        }
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * "Stock Quantity", "stock_quantity" and "stockQuantity" all name the same column
+     */
+    private static String headerKey(String header) {
+        return header.replace("\uFEFF", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String key) {
+        Integer index = columns.get(key);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value != null ? new BigDecimal(value) : null;
+    }
+
+    private static Integer integer(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    private static Long longValue(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(String[] row) throws IOException;
+    }
+
+    record ImportRow(String name, BigDecimal price, String description, Integer stockQuantity,
+                     Long categoryId, String categoryName) {
+    }
+
+    private record PendingRow(long rowNumber, String name, MapSqlParameterSource params) {
+    }
+
+    private record CategoryLookup(Set<Long> ids, Map<String, Long> byName) {
+    }
+
+    private static final class ImportRun {
+        private final Long shopId;
+        private final ProductImportResponse response = new ProductImportResponse();
+        private final List<PendingRow> batch = new ArrayList<>();
+
+        private ImportRun(Long shopId) {
+            this.shopId = shopId;
+        }
+
+        private void countRow() {
+            response.setTotalRows(response.getTotalRows() + 1);
+        }
+
+        private void fail(long row, String message, int maxErrors) {
+            response.setFailed(response.getFailed() + 1);
+            if (response.getErrors().size() < maxErrors) {
+                response.getErrors().add(new ProductImportResponse.RowError(row, message));
+            } else {
+                response.setErrorsTruncated(true);
+            }
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.bkplatform.service;
 
 import com.bkplatform.dto.CreateProductRequest;
+import com.bkplatform.dto.ProductFacetsResponse;
+import com.bkplatform.dto.ProductListItemResponse;
+import com.bkplatform.dto.ProductSearchCriteria;
+import com.bkplatform.dto.ProductSearchResponse;
+import com.bkplatform.dto.SuggestionResponse;
 import com.bkplatform.dto.UpdateProductRequest;
+import com.bkplatform.exception.PreconditionFailedException;
 import com.bkplatform.exception.ResourceNotFoundException;
 import com.bkplatform.exception.UnauthorizedException;
 import com.bkplatform.model.*;
 import com.bkplatform.repository.CategoryRepository;
+import com.bkplatform.repository.ProductFacetRepository;
 import com.bkplatform.repository.ProductRepository;
 import com.bkplatform.repository.ShopRepository;
 import jakarta.persistence.criteria.Predicate;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -20,8 +30,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -30,20 +47,64 @@ import java.util.Optional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductFacetRepository productFacetRepository;
     private final ShopRepository shopRepository;
     private final CategoryRepository categoryRepository;
+    private final RankingService rankingService;
+    private final ShopService shopService;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductImageService productImageService;
+    private final OptimisticRetry optimisticRetry;
+
+    // ✅ Search pages are serialized in one piece, so their size is bounded instead of streamed
+    @Value("${app.search.max-page-size:100}")
+    private int maxPageSize;
 
     /**
      * Search products with filters, sorting, and pagination
      */
-    public Page<Product> search(String search, Long categoryId, String sortBy, int page, int size) {
-        Sort sort = buildSort(sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+    public Page<ProductListItemResponse> search(String search, Long categoryId, String sortBy, int page, int size) {
+        return search(ProductSearchCriteria.builder()
+                .search(search)
+                .categoryId(categoryId)
+                .build(), sortBy, page, size);
+    }
+
+    @Timed(value = "bk.product.search", description = "Product search page (query + thumbnails)")
+    public Page<ProductListItemResponse> search(ProductSearchCriteria criteria, String sortBy, int page, int size) {
+        validateCriteria(criteria);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize), buildSort(sortBy));
+        return toListItems(productRepository.findAll(buildSpecification(criteria), pageable));
+    }
+
+    /**
+     * Search plus facet counts (categories, shops, price buckets, in-stock) over the same filtered set.
+     * ✅ Facets are one aggregate statement, not one search per filter value
+     */
+    @Timed(value = "bk.product.search", description = "Product search page (query + thumbnails)")
+    public ProductSearchResponse searchWithFacets(ProductSearchCriteria criteria, String sortBy, int page, int size) {
+        Page<ProductListItemResponse> products = search(criteria, sortBy, page, size);
+        ProductFacetsResponse facets = productFacetRepository.computeFacets(criteria);
+        return new ProductSearchResponse(products, facets);
+    }
+
+    private void validateCriteria(ProductSearchCriteria criteria) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+    }
 
-        Specification<Product> spec = (root, query, cb) -> {
+    /**
+     * Build the search Specification (kept in sync with ProductFacetRepository's WHERE clause)
+     * ✅ Package-private static: exercised directly by the JMH benchmarks in src/jmh/java
+     */
+    static Specification<Product> buildSpecification(ProductSearchCriteria criteria) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             // Search by name or description
+            String search = criteria.getSearch();
             if (search != null && !search.trim().isEmpty()) {
                 String searchPattern = "%" + search.toLowerCase().trim() + "%";
                 Predicate namePredicate = cb.like(cb.lower(root.get("name")), searchPattern);
@@ -52,22 +113,34 @@ public class ProductService {
             }
 
             // Filter by category
-            if (categoryId != null) {
-                predicates.add(cb.equal(root.get("category").get("categoryId"), categoryId));
+            if (criteria.getCategoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("categoryId"), criteria.getCategoryId()));
+            }
+
+            // Filter by price range
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+
+            // Only products that can be bought right now
+            if (Boolean.TRUE.equals(criteria.getInStock())) {
+                predicates.add(cb.greaterThan(root.get("stockQuantity"), 0));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        return productRepository.findAll(spec, pageable);
     }
 
     /**
      * Build Sort object from sort parameter
+     * ✅ bestseller / top_rated read precomputed columns (see RankingService), so they cost the same as a price sort
      */
-    private Sort buildSort(String sortBy) {
+    static Sort buildSort(String sortBy) {
         if (sortBy == null || sortBy.trim().isEmpty()) {
-            return Sort.by(Sort.Direction.DESC, "createdAt");
+            return Sort.by(Sort.Direction.DESC, "createdDate");
         }
 
         return switch (sortBy.toLowerCase()) {
@@ -75,12 +148,54 @@ public class ProductService {
             case "price_desc" -> Sort.by(Sort.Direction.DESC, "price");
             case "name_asc" -> Sort.by(Sort.Direction.ASC, "name");
             case "name_desc" -> Sort.by(Sort.Direction.DESC, "name");
-            case "newest" -> Sort.by(Sort.Direction.DESC, "createdAt");
-            case "oldest" -> Sort.by(Sort.Direction.ASC, "createdAt");
-            default -> Sort.by(Sort.Direction.DESC, "createdAt");
+            case "newest" -> Sort.by(Sort.Direction.DESC, "createdDate");
+            case "oldest" -> Sort.by(Sort.Direction.ASC, "createdDate");
+            case "rating_desc" -> Sort.by(Sort.Direction.DESC, "averageRating", "reviewCount");
+            case "bestseller" -> Sort.by(Sort.Direction.DESC, "unitsSold", "createdDate");
+            case "top_rated" -> Sort.by(Sort.Direction.DESC, "ratingScore", "reviewCount");
+            default -> Sort.by(Sort.Direction.DESC, "createdDate");
         };
     }
 
+    /**
+     * Top products of a ranking, served from the in-memory top-N (one IN query for the entities)
+     */
+    public List<ProductListItemResponse> getTopProducts(RankingService.Ranking ranking, Long categoryId, int limit) {
+        List<Long> ids = rankingService.topProductIds(ranking, categoryId, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            byId.put(product.getProductId(), product);
+        }
+
+        // Keep ranking order; skip products deleted since the last refresh
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return productImageService.toListItems(result);
+    }
+
+    /**
+     * Attach every image to a page of listing items (one query for the page)
+     */
+    public void attachImages(List<ProductListItemResponse> items) {
+        productImageService.attachImages(items);
+    }
+
+    /**
+     * Typeahead suggestions from the in-memory index (no DB access)
+     */
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        return suggestIndex.suggest(query, limit);
+    }
+
     /**
      * Find product by ID
      */
@@ -88,6 +203,56 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    /**
+     * Current ETag of a product from one projection query, without loading the entity graph.
+     * Empty when the product does not exist.
+     */
+    public Optional<String> currentETag(Long id) {
+        return productRepository.findETagState(id).map(state -> etagOf(
+                state.getVersion(), state.getReviewCount(), state.getRatingSum(), state.getUnitsSold(),
+                state.getPrimaryImageId(), state.getShopReviewCount(), state.getShopRatingSum()));
+    }
+
+    /**
+     * Strong ETag of a loaded product; same value as currentETag for the same row
+     */
+    public static String etagOf(Product product) {
+        Shop shop = product.getShop();
+        return etagOf(product.getVersion(), product.getReviewCount(), product.getRatingSum(), product.getUnitsSold(),
+                product.getPrimaryImageId(), shop.getReviewCount(), shop.getRatingSum());
+    }
+
+    /**
+     * "{version}-{hash of derived columns}": the version covers every owner edit, the hash covers
+     * aggregates maintained outside the entity (reviews, sales ranking, primary image)
+     */
+    private static String etagOf(Long version, Integer reviewCount, Integer ratingSum, Integer unitsSold,
+                                 Long primaryImageId, Integer shopReviewCount, Integer shopRatingSum) {
+        int derived = Objects.hash(reviewCount, ratingSum, unitsSold, primaryImageId, shopReviewCount, shopRatingSum);
+        return "\"" + version + "-" + Integer.toHexString(derived) + "\"";
+    }
+
+    /**
+     * ETag of a listing: digest of every product tag on it plus anything else in the body (facets, images).
+     * Computed from the loaded page, so a 304 skips serialization and the transfer, not the query.
+     */
+    public static String listETagOf(List<ProductListItemResponse> items, long total, Object... extra) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (ProductListItemResponse item : items) {
+                digest.update(etagOf(item.getProduct()).getBytes(StandardCharsets.UTF_8));
+                digest.update(String.valueOf(item.getThumbnailUrl()).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(Long.toString(total).getBytes(StandardCharsets.UTF_8));
+            for (Object value : extra) {
+                digest.update(Integer.toHexString(Objects.hashCode(value)).getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
     /**
      * Get product by ID (throws exception if not found)
      */
@@ -119,14 +284,7 @@ public class ProductService {
         }
 
         // Get or create shop for owner
-        Shop shop = shopRepository.findByOwner(owner).orElseGet(() -> {
-            log.info("Creating new shop for user: {}", owner.getUsername());
-            Shop newShop = Shop.builder()
-                    .owner(owner)
-                    .name(owner.getFullName() + "'s Shop")
-                    .build();
-            return shopRepository.save(newShop);
-        });
+        Shop shop = getOrCreateShop(owner);
 
         // Build product
         Product product = Product.builder()
@@ -147,17 +305,42 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
+        shopService.evictStorefront(shop.getShopId());
+        suggestIndex.upsertAfterCommit(saved);
         log.info("Created product with id: {}", saved.getProductId());
 
         return saved;
     }
 
+    /**
+     * Shop of the owner, created on their first product
+     */
+    Shop getOrCreateShop(User owner) {
+        return shopRepository.findByOwner(owner).orElseGet(() -> {
+            log.info("Creating new shop for user: {}", owner.getUsername());
+            Shop newShop = Shop.builder()
+                    .owner(owner)
+                    .name(owner.getFullName() + "'s Shop")
+                    .build();
+            return shopRepository.save(newShop);
+        });
+    }
+
     /**
      * Update product (only by owner)
      * ✅ FIX: Return Optional<Product> to match controller expectation
      */
     @Transactional
     public Optional<Product> update(Long id, UpdateProductRequest req, User owner) {
+        return update(id, req, owner, null);
+    }
+
+    /**
+     * Update product if it is still at expectedVersion (If-Match); null skips the check.
+     * A write that slips in between still fails at commit through @Version.
+     */
+    @Transactional
+    public Optional<Product> update(Long id, UpdateProductRequest req, User owner, Long expectedVersion) {
         log.info("Updating product {} by user: {}", id, owner.getUsername());
 
         Optional<Product> productOpt = productRepository.findById(id);
@@ -173,6 +356,11 @@ public class ProductService {
             throw new UnauthorizedException("You don't have permission to update this product");
         }
 
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Product " + id + " has changed (version " + product.getVersion() + "), reload and try again");
+        }
+
         // ✅ Update fields with validation
         if (req.getName() != null && !req.getName().trim().isEmpty()) {
             product.setName(req.getName().trim());
@@ -206,6 +394,8 @@ public class ProductService {
         }
 
         Product updated = productRepository.save(product);
+        shopService.evictStorefront(product.getShop().getShopId());
+        suggestIndex.upsertAfterCommit(updated);
         log.info("Updated product {}", id);
 
         return Optional.of(updated);
@@ -232,7 +422,23 @@ public class ProductService {
             throw new UnauthorizedException("You don't have permission to delete this product");
         }
 
+        // ✅ Reviews cascade with the product, so take its ratings out of the shop aggregates
+        if (product.getReviewCount() != null && product.getReviewCount() > 0) {
+            shopRepository.subtractProductRatings(
+                    product.getShop().getShopId(),
+                    product.getReviewCount(),
+                    product.getRatingSum(),
+                    product.getRating1Count(),
+                    product.getRating2Count(),
+                    product.getRating3Count(),
+                    product.getRating4Count(),
+                    product.getRating5Count()
+            );
+        }
+
         productRepository.delete(product);
+        shopService.evictStorefront(product.getShop().getShopId());
+        suggestIndex.removeAfterCommit(id);
         log.info("Deleted product {}", id);
 
         return true;
@@ -241,36 +447,48 @@ public class ProductService {
     /**
      * Get products by shop
      */
-    public Page<Product> getProductsByShop(Long shopId, int page, int size) {
+    public Page<ProductListItemResponse> getProductsByShop(Long shopId, int page, int size) {
         Shop shop = shopRepository.findById(shopId)
                 .orElseThrow(() -> new ResourceNotFoundException("Shop not found"));
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
 
         Specification<Product> spec = (root, query, cb) ->
                 cb.equal(root.get("shop"), shop);
 
-        return productRepository.findAll(spec, pageable);
+        return toListItems(productRepository.findAll(spec, pageable));
+    }
+
+    /**
+     * Map a page of entities to listing items, thumbnails resolved in one query for the page
+     */
+    private Page<ProductListItemResponse> toListItems(Page<Product> page) {
+        List<ProductListItemResponse> items = productImageService.toListItems(page.getContent());
+        return new PageImpl<>(items, page.getPageable(), page.getTotalElements());
     }
 
     /**
      * Update stock quantity (for inventory management)
+     * ✅ Retried on optimistic-lock conflicts: each attempt reloads the product
      */
-    @Transactional
     public Product updateStock(Long productId, int quantity, User owner) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        // Check ownership
-        if (!product.getShop().getOwner().getUserId().equals(owner.getUserId())) {
-            throw new UnauthorizedException("You don't have permission to update stock");
-        }
-
         if (quantity < 0) {
             throw new IllegalArgumentException("Stock quantity cannot be negative");
         }
 
-        product.setStockQuantity(quantity);
-        return productRepository.save(product);
+        return optimisticRetry.execute("updateStock(" + productId + ")", () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+            // Check ownership
+            if (!product.getShop().getOwner().getUserId().equals(owner.getUserId())) {
+                throw new UnauthorizedException("You don't have permission to update stock");
+            }
+
+            product.setStockQuantity(quantity);
+            Product saved = productRepository.saveAndFlush(product);
+            shopService.evictStorefront(product.getShop().getShopId());
+            return saved;
+        });
     }
-}
\ No newline at end of file
+}
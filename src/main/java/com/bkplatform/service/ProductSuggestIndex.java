@@ -0,0 +1,396 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.SuggestionResponse;
+import com.bkplatform.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over product names.
+ *
+ * Names are accent-folded ("Điện thoại" -> "dien thoai") and indexed once per word start,
+ * so "thoai" matches too. Keys live in a concurrent sorted map; short prefixes (the ones matching
+ * most of the catalog) are answered from a precomputed top-K per prefix, longer ones rank every
+ * match in their range. Committed changes update the tables in place, key by key, and re-rank
+ * only the cached prefixes of the product's old and new keys; a rebuild fills fresh tables and
+ * swaps them in. Readers never lock and may briefly see a product under its old and new name.
+ *
+ * Built at startup and rebuilt after every ranking refresh so weights follow units_sold;
+ * ProductService keeps names current after each committed create/update/delete.
+ * Lookups never touch the database.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndex {
+
+    /** Largest limit served from the precomputed tables (the controller caps requests at 20) */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.suggest.max-words-indexed:6}")
+    private int maxWordsIndexed;
+
+    @Value("${app.suggest.cached-prefix-length:3}")
+    private int cachedPrefixLength;
+
+    private volatile Tables tables = Tables.empty();
+
+    // Serializes writers and table swaps; while a rebuild scans, committed changes are also queued for replay
+    private final Object writeLock = new Object();
+    private List<Change> replayAfterBuild;
+
+    public ProductSuggestIndex(DataSource dataSource, TransactionTemplate transactionTemplate) {
+        // Own template so the startup scan streams through a cursor instead of buffering every row
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(5000);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (writeLock) {
+            if (replayAfterBuild != null) {
+                log.debug("Product suggest index rebuild already in progress, skipping");
+                return;
+            }
+            replayAfterBuild = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        ConcurrentNavigableMap<String, Entry> newIndex = new ConcurrentSkipListMap<>();
+        Map<Long, Indexed> newById = new ConcurrentHashMap<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(
+                    "SELECT product_id, name, units_sold, review_count FROM products",
+                    rs -> {
+                        long id = rs.getLong("product_id");
+                        int weight = rs.getInt("units_sold") + rs.getInt("review_count");
+                        put(newIndex, newById, id, rs.getString("name"), weight);
+                    }));
+        } catch (Exception e) {
+            log.error("Failed to build product suggest index", e);
+            synchronized (writeLock) {
+                replayAfterBuild = null;
+            }
+            return;
+        }
+
+        synchronized (writeLock) {
+            // ✅ Changes committed while the scan ran may be missing from it
+            replayAfterBuild.forEach(change -> change.applyTo(this, newIndex, newById));
+            replayAfterBuild = null;
+            tables = new Tables(newIndex, newById, topByPrefix(newIndex));
+        }
+
+        log.info("Built product suggest index: {} products, {} keys in {}ms",
+                newById.size(), newIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Top suggestions for a typed prefix
+     */
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Tables current = tables;
+        List<Entry> top;
+        if (prefix.length() <= cachedPrefixLength && limit <= MAX_SUGGESTIONS) {
+            top = current.topByPrefix().getOrDefault(prefix, List.of());
+        } else {
+            top = rank(current.index(), prefix, limit);
+        }
+
+        return top.stream()
+                .limit(limit)
+                .map(entry -> new SuggestionResponse(entry.productId(), entry.name()))
+                .toList();
+    }
+
+    /**
+     * Index (or re-index) a product once the current transaction commits
+     */
+    public void upsertAfterCommit(Product product) {
+        enqueue(new Change(product.getProductId(), product.getName()));
+    }
+
+    /**
+     * Drop a product once the current transaction commits
+     */
+    public void removeAfterCommit(Long productId) {
+        enqueue(new Change(productId, null));
+    }
+
+    public int size() {
+        return tables.byId().size();
+    }
+
+    /**
+     * Collect changes per transaction and apply them once it commits
+     */
+    @SuppressWarnings("unchecked")
+    private void enqueue(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductSuggestIndex.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void apply(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            Tables current = tables;
+            changes.forEach(change -> applyInPlace(current, change));
+            if (replayAfterBuild != null) {
+                replayAfterBuild.addAll(changes);
+            }
+        }
+    }
+
+    /**
+     * ✅ Per-key update: only the product's own keys and the cached prefixes they fall under are touched
+     */
+    private void applyInPlace(Tables target, Change change) {
+        Indexed existing = target.byId().get(change.productId());
+        change.applyTo(this, target.index(), target.byId());
+        Indexed updated = target.byId().get(change.productId());
+
+        Set<String> oldPrefixes = cachedPrefixes(existing);
+        Set<String> newPrefixes = cachedPrefixes(updated);
+        Set<String> affected = new HashSet<>(oldPrefixes);
+        affected.addAll(newPrefixes);
+
+        for (String prefix : affected) {
+            List<Entry> top = target.topByPrefix().getOrDefault(prefix, List.of());
+            Entry ranked = top.stream().filter(entry -> entry.productId() == change.productId()).findFirst().orElse(null);
+            boolean full = top.size() >= MAX_SUGGESTIONS;
+
+            List<Entry> next;
+            if (newPrefixes.contains(prefix) && !(full && ranked != null && TopK.isWorse(updated.entry(), ranked))) {
+                // Other entries keep their order: merging is exact unless a listed product moves down a full list
+                next = TopK.merge(top, updated.entry(), MAX_SUGGESTIONS);
+            } else if (ranked != null) {
+                // Left or moved down a prefix it ranked in: the next best has to come from the index
+                next = rank(target.index(), prefix, MAX_SUGGESTIONS);
+            } else {
+                continue;
+            }
+
+            if (next.isEmpty()) {
+                target.topByPrefix().remove(prefix);
+            } else {
+                target.topByPrefix().put(prefix, next);
+            }
+        }
+    }
+
+    private void put(NavigableMap<String, Entry> target, Map<Long, Indexed> targetById,
+                     long productId, String name, int weight) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        Entry entry = new Entry(productId, name, weight);
+        List<String> keys = new ArrayList<>();
+
+        // One key per word start: "ao thun nam" -> "ao thun nam", "thun nam", "nam"
+        int words = 0;
+        int start = 0;
+        while (start >= 0 && words < maxWordsIndexed) {
+            String key = normalized.substring(start) + KEY_SEPARATOR + productId;
+            target.put(key, entry);
+            keys.add(key);
+            words++;
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+
+        targetById.put(productId, new Indexed(entry, keys));
+    }
+
+    /**
+     * Best `limit` products among every key in the prefix range
+     */
+    private static List<Entry> rank(NavigableMap<String, Entry> index, String prefix, int limit) {
+        TopK best = new TopK(limit);
+        index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(best::offer);
+        return best.toList();
+    }
+
+    /**
+     * Top-K for every cached prefix in one pass over the index
+     */
+    private Map<String, List<Entry>> topByPrefix(NavigableMap<String, Entry> index) {
+        Map<String, TopK> tops = new HashMap<>();
+        index.forEach((key, entry) -> {
+            for (String prefix : cachedPrefixes(key)) {
+                tops.computeIfAbsent(prefix, p -> new TopK(MAX_SUGGESTIONS)).offer(entry);
+            }
+        });
+
+        Map<String, List<Entry>> result = new ConcurrentHashMap<>(tops.size());
+        tops.forEach((prefix, top) -> result.put(prefix, top.toList()));
+        return result;
+    }
+
+    private Set<String> cachedPrefixes(Indexed indexed) {
+        if (indexed == null) {
+            return Set.of();
+        }
+        Set<String> prefixes = new HashSet<>();
+        indexed.keys().forEach(key -> prefixes.addAll(cachedPrefixes(key)));
+        return prefixes;
+    }
+
+    private List<String> cachedPrefixes(String key) {
+        int length = Math.min(cachedPrefixLength, key.indexOf(KEY_SEPARATOR));
+        List<String> prefixes = new ArrayList<>(length);
+        for (int i = 1; i <= length; i++) {
+            prefixes.add(key.substring(0, i));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Lowercase, strip Vietnamese diacritics and collapse punctuation to single spaces
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = folded.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+        return NON_ALNUM.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private record Entry(long productId, String name, int weight) {
+    }
+
+    private record Indexed(Entry entry, List<String> keys) {
+    }
+
+    /**
+     * A committed rename/create (name set) or delete (name null); weight is kept until the next rebuild
+     */
+    private record Change(long productId, String name) {
+
+        void applyTo(ProductSuggestIndex owner, NavigableMap<String, Entry> index, Map<Long, Indexed> byId) {
+            Indexed existing = byId.remove(productId);
+            if (existing != null) {
+                existing.keys().forEach(index::remove);
+            }
+            if (name != null) {
+                owner.put(index, byId, productId, name, existing != null ? existing.entry().weight() : 0);
+            }
+        }
+    }
+
+    /**
+     * Live tables: updated in place by writers (one at a time), read without locking
+     */
+    private record Tables(ConcurrentNavigableMap<String, Entry> index,
+                          Map<Long, Indexed> byId,
+                          Map<String, List<Entry>> topByPrefix) {
+
+        static Tables empty() {
+            return new Tables(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Bounded min-heap keeping the best entries, one per product
+     */
+    private static final class TopK {
+
+        private static final Comparator<Entry> WORST_FIRST = Comparator.comparingInt(Entry::weight)
+                .thenComparing(Entry::name, Comparator.reverseOrder())
+                .thenComparing(Entry::productId, Comparator.reverseOrder());
+
+        private final int limit;
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(WORST_FIRST);
+        private final Set<Long> ids = new HashSet<>();
+
+        TopK(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(Entry entry) {
+            // A product is indexed once per word; keep it once
+            if (!ids.add(entry.productId())) {
+                return;
+            }
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                ids.remove(heap.poll().productId());
+            }
+        }
+
+        List<Entry> toList() {
+            List<Entry> result = new ArrayList<>(heap);
+            result.sort(WORST_FIRST.reversed());
+            return List.copyOf(result);
+        }
+
+        static boolean isWorse(Entry entry, Entry than) {
+            return WORST_FIRST.compare(entry, than) < 0;
+        }
+
+        /**
+         * Best-first list with the entry added (or replacing the same product's), cut to limit
+         */
+        static List<Entry> merge(List<Entry> top, Entry entry, int limit) {
+            TopK best = new TopK(limit);
+            best.offer(entry);
+            top.stream().filter(other -> other.productId() != entry.productId()).forEach(best::offer);
+            return best.toList();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.bkplatform.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Best-seller and top-rated rankings.
+ *
+ * The product_ranking materialized view holds the expensive aggregation over order_items
+ * and the rating columns. A scheduled job refreshes it concurrently (readers are never blocked),
+ * copies only the changed scores onto products.units_sold / products.rating_score, and reloads
+ * an in-memory per-category top-N snapshot used by the "top products" widgets, then rebuilds
+ * the typeahead index so its weights follow the new scores.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingService {
+
+    public enum Ranking { BESTSELLER, TOP_RATED }
+
+    // Arbitrary constant shared by all instances: only one of them refreshes per cycle
+    private static final long REFRESH_LOCK_KEY = 0x6b70526e6bL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductSuggestIndex suggestIndex;
+
+    @Value("${app.ranking.top-n:100}")
+    private int topN;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reloadTopN();
+        } catch (Exception e) {
+            log.warn("Could not load product rankings at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the materialized view and propagate changed scores
+     */
+    @Scheduled(fixedDelayString = "${app.ranking.refresh-interval-ms:300000}",
+            initialDelayString = "${app.ranking.initial-delay-ms:60000}")
+    public void refresh() {
+        // ✅ Never overlap with a refresh still running on this instance
+        if (!refreshing.compareAndSet(false, true)) {
+            log.debug("Ranking refresh already in progress, skipping");
+            return;
+        }
+
+        try {
+            try {
+                refreshRanking();
+            } catch (Exception e) {
+                log.error("Failed to refresh product rankings", e);
+            }
+
+            // Own failure domain: a failed ranking refresh must not leave suggestion names and weights stale.
+            // Suggestion weights are units_sold + review_count.
+            try {
+                suggestIndex.build();
+            } catch (Exception e) {
+                log.error("Failed to rebuild product suggest index", e);
+            }
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Materialized view refresh, copy onto products, then the in-memory top-N snapshot
+     */
+    private void refreshRanking() {
+        long start = System.currentTimeMillis();
+
+        Integer changed = transactionTemplate.execute(status -> {
+            // ✅ Never overlap with a refresh running on another instance either
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return null;
+            }
+
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY product_ranking");
+
+            return jdbcTemplate.update("""
+                    UPDATE products p
+                    SET units_sold = r.units_sold, rating_score = r.rating_score
+                    FROM product_ranking r
+                    WHERE p.product_id = r.product_id
+                      AND (p.units_sold <> r.units_sold OR p.rating_score <> r.rating_score)
+                    """);
+        });
+
+        if (changed == null) {
+            log.debug("Ranking refresh is running on another instance");
+        } else {
+            log.info("Refreshed product rankings in {}ms ({} products changed)",
+                    System.currentTimeMillis() - start, changed);
+        }
+
+        reloadTopN();
+    }
+
+    /**
+     * Top product ids for a ranking, optionally within one category (no DB access)
+     */
+    public List<Long> topProductIds(Ranking ranking, Long categoryId, int limit) {
+        Snapshot current = snapshot;
+
+        List<Long> ids;
+        if (categoryId == null) {
+            ids = ranking == Ranking.BESTSELLER ? current.bestseller() : current.topRated();
+        } else {
+            Map<Long, List<Long>> byCategory = ranking == Ranking.BESTSELLER
+                    ? current.bestsellerByCategory()
+                    : current.topRatedByCategory();
+            ids = byCategory.getOrDefault(categoryId, List.of());
+        }
+
+        return ids.size() <= limit ? ids : ids.subList(0, limit);
+    }
+
+    public Instant getRefreshedAt() {
+        return snapshot.refreshedAt();
+    }
+
+    private void reloadTopN() {
+        List<RankedRow> rows = jdbcTemplate.query("""
+                SELECT product_id, CAST(category_id AS BIGINT) AS category_id, units_sold, rating_score, sales_pos, rating_pos
+                FROM (
+                    SELECT r.*,
+                           ROW_NUMBER() OVER (PARTITION BY category_id ORDER BY units_sold DESC, product_id) AS sales_pos,
+                           ROW_NUMBER() OVER (PARTITION BY category_id ORDER BY rating_score DESC, product_id) AS rating_pos
+                    FROM product_ranking r
+                ) ranked
+                WHERE sales_pos <= ? OR rating_pos <= ?
+                """,
+                (rs, i) -> new RankedRow(
+                        rs.getLong("product_id"),
+                        rs.getObject("category_id", Long.class),
+                        rs.getInt("units_sold"),
+                        rs.getBigDecimal("rating_score"),
+                        rs.getInt("sales_pos"),
+                        rs.getInt("rating_pos")
+                ),
+                topN, topN);
+
+        Comparator<RankedRow> bySales = Comparator.comparingInt(RankedRow::unitsSold).reversed()
+                .thenComparingLong(RankedRow::productId);
+        Comparator<RankedRow> byRating = Comparator.comparing(RankedRow::ratingScore).reversed()
+                .thenComparingLong(RankedRow::productId);
+
+        Map<Long, List<Long>> bestsellerByCategory = new HashMap<>();
+        Map<Long, List<Long>> topRatedByCategory = new HashMap<>();
+        Map<Long, List<RankedRow>> grouped = new HashMap<>();
+        for (RankedRow row : rows) {
+            if (row.categoryId() != null) {
+                grouped.computeIfAbsent(row.categoryId(), k -> new ArrayList<>()).add(row);
+            }
+        }
+        grouped.forEach((categoryId, categoryRows) -> {
+            bestsellerByCategory.put(categoryId, topIds(categoryRows, r -> r.salesPos() <= topN, bySales));
+            topRatedByCategory.put(categoryId, topIds(categoryRows, r -> r.ratingPos() <= topN, byRating));
+        });
+
+        // The global top-N is always contained in the union of the per-category top-Ns
+        snapshot = new Snapshot(
+                Map.copyOf(bestsellerByCategory),
+                Map.copyOf(topRatedByCategory),
+                topIds(rows, r -> r.salesPos() <= topN, bySales),
+                topIds(rows, r -> r.ratingPos() <= topN, byRating),
+                Instant.now()
+        );
+
+        log.debug("Loaded ranking snapshot: {} rows, {} categories", rows.size(), grouped.size());
+    }
+
+    private List<Long> topIds(List<RankedRow> rows, Predicate<RankedRow> filter,
+                              Comparator<RankedRow> order) {
+        return rows.stream()
+                .filter(filter)
+                .sorted(order)
+                .limit(topN)
+                .map(RankedRow::productId)
+                .toList();
+    }
+
+    private record RankedRow(long productId, Long categoryId, int unitsSold, BigDecimal ratingScore,
+                             int salesPos, int ratingPos) {
+    }
+
+    private record Snapshot(Map<Long, List<Long>> bestsellerByCategory,
+                            Map<Long, List<Long>> topRatedByCategory,
+                            List<Long> bestseller,
+                            List<Long> topRated,
+                            Instant refreshedAt) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of(), List.of(), null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bkplatform.service;
+
+import com.bkplatform.model.Category;
+import com.bkplatform.model.District;
+import com.bkplatform.model.Province;
+import com.bkplatform.model.ShippingProvider;
+import com.bkplatform.model.Ward;
+import com.bkplatform.repository.CategoryRepository;
+import com.bkplatform.repository.DistrictRepository;
+import com.bkplatform.repository.ProvinceRepository;
+import com.bkplatform.repository.ShippingProviderRepository;
+import com.bkplatform.repository.WardRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Second-level cache for reference tables (categories, administrative divisions, shipping providers).
+ * Regions are READ_ONLY: rows only change through migrations, so entries never need invalidation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceCacheService {
+
+    public static final List<String> REGIONS = List.of(
+            "reference.category",
+            "reference.province",
+            "reference.district",
+            "reference.ward",
+            "reference.shipping_provider"
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CategoryRepository categoryRepository;
+    private final ProvinceRepository provinceRepository;
+    private final DistrictRepository districtRepository;
+    private final WardRepository wardRepository;
+    private final ShippingProviderRepository shippingProviderRepository;
+
+    @Value("${app.reference-cache.warm-up:true}")
+    private boolean warmUpEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (warmUpEnabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Loads every reference row once; loaded entities are put into their cache region,
+     * so later eager @ManyToOne lookups are served without SQL.
+     * Parents first, so each ward's district and province resolve from the cache.
+     */
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+
+        int categories = categoryRepository.findAll().size();
+        int providers = shippingProviderRepository.findAll().size();
+        int provinces = provinceRepository.findAll().size();
+        int districts = districtRepository.findAll().size();
+        int wards = wardRepository.findAll().size();
+
+        log.info("Reference cache warmed in {}ms: {} categories, {} providers, {} provinces, {} districts, {} wards",
+                System.currentTimeMillis() - start, categories, providers, provinces, districts, wards);
+    }
+
+    /**
+     * Drops cached reference rows and cached query results, then loads them again.
+     * READ_ONLY entries are never refreshed in place, so this is how a manual data fix becomes visible.
+     */
+    public void reload() {
+        Cache cache = entityManagerFactory.getCache();
+        for (Class<?> type : List.of(Category.class, Province.class, District.class, Ward.class, ShippingProvider.class)) {
+            cache.evict(type);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        warmUp();
+    }
+
+    /**
+     * Hit/miss/put counters per region plus query cache totals (requires hibernate.generate_statistics)
+     */
+    public Map<String, Object> getStatistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", stats.isStatisticsEnabled());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = stats.getDomainDataRegionStatistics(region);
+            regions.put(region, Map.of(
+                    "hits", regionStats.getHitCount(),
+                    "misses", regionStats.getMissCount(),
+                    "puts", regionStats.getPutCount()
+            ));
+        }
+        result.put("regions", regions);
+
+        result.put("queryCache", Map.of(
+                "hits", stats.getQueryCacheHitCount(),
+                "misses", stats.getQueryCacheMissCount(),
+                "puts", stats.getQueryCachePutCount()
+        ));
+        result.put("entityLoads", stats.getEntityLoadCount());
+        result.put("statementsPrepared", stats.getPrepareStatementCount());
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.RatingSummaryResponse;
+import com.bkplatform.dto.ReviewRequest;
+import com.bkplatform.dto.ReviewResponse;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.exception.UnauthorizedException;
+import com.bkplatform.model.Product;
+import com.bkplatform.model.ProductReview;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.ProductRepository;
+import com.bkplatform.repository.ProductReviewRepository;
+import com.bkplatform.repository.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Product reviews. Every write also applies a delta to the rating aggregates on
+ * products and shop inside the same transaction, so reads never scan product_review.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewService {
+
+    private final ProductReviewRepository reviewRepository;
+    private final ProductRepository productRepository;
+    private final ShopRepository shopRepository;
+    private final ShopService shopService;
+
+    /**
+     * List reviews of a product, newest first
+     */
+    public Page<ReviewResponse> getReviews(Long productId, int page, int size) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return reviewRepository.findResponsesByProductId(
+                productId,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "reviewDate"))
+        );
+    }
+
+    /**
+     * Rating summary read from the precomputed aggregates
+     */
+    public RatingSummaryResponse getRatingSummary(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        return toSummary(product.getReviewCount(), product.getAverageRating(),
+                product.getRating1Count(), product.getRating2Count(), product.getRating3Count(),
+                product.getRating4Count(), product.getRating5Count());
+    }
+
+    @Transactional
+    public ReviewResponse create(Long productId, ReviewRequest req, User user) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        // ✅ Sellers cannot rate their own products
+        if (product.getShop().getOwner().getUserId().equals(user.getUserId())) {
+            throw new InvalidDataException("You cannot review your own product");
+        }
+
+        if (reviewRepository.existsByProductAndUser(product, user)) {
+            throw new InvalidDataException("You have already reviewed this product");
+        }
+
+        ProductReview review = ProductReview.builder()
+                .product(product)
+                .user(user)
+                .rating(req.getRating())
+                .content(trimToNull(req.getContent()))
+                .reviewDate(Instant.now())
+                .build();
+        review = reviewRepository.save(review);
+
+        applyDelta(product, 1, req.getRating(), req.getRating(), 0);
+
+        log.info("User {} reviewed product {} with rating {}", user.getUsername(), productId, req.getRating());
+        return toResponse(review);
+    }
+
+    @Transactional
+    public ReviewResponse update(Long productId, Long reviewId, ReviewRequest req, User user) {
+        ProductReview review = loadOwnReview(productId, reviewId, user);
+
+        int oldRating = review.getRating();
+        int newRating = req.getRating();
+
+        review.setRating(newRating);
+        review.setContent(trimToNull(req.getContent()));
+        review.setReviewDate(Instant.now());
+        review = reviewRepository.save(review);
+
+        if (oldRating != newRating) {
+            applyDelta(review.getProduct(), 0, newRating - oldRating, newRating, oldRating);
+        }
+
+        log.info("User {} updated review {} ({} -> {})", user.getUsername(), reviewId, oldRating, newRating);
+        return toResponse(review);
+    }
+
+    @Transactional
+    public void delete(Long productId, Long reviewId, User user) {
+        ProductReview review = loadOwnReview(productId, reviewId, user);
+        int rating = review.getRating();
+
+        reviewRepository.delete(review);
+        applyDelta(review.getProduct(), -1, -rating, 0, rating);
+
+        log.info("User {} deleted review {}", user.getUsername(), reviewId);
+    }
+
+    private ProductReview loadOwnReview(Long productId, Long reviewId, User user) {
+        ProductReview review = reviewRepository.findByIdForUpdate(reviewId)
+                .filter(r -> r.getProduct().getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
+
+        if (!review.getUser().getUserId().equals(user.getUserId())) {
+            throw new UnauthorizedException("You don't have permission to modify this review");
+        }
+        return review;
+    }
+
+    private void applyDelta(Product product, int countDelta, int sumDelta, int addedRating, int removedRating) {
+        productRepository.applyRatingDelta(product.getProductId(), countDelta, sumDelta, addedRating, removedRating);
+        shopRepository.applyRatingDelta(product.getShop().getShopId(), countDelta, sumDelta, addedRating, removedRating);
+        shopService.evictStorefront(product.getShop().getShopId());
+    }
+
+    static RatingSummaryResponse toSummary(Integer reviewCount, BigDecimal averageRating,
+                                           Integer r1, Integer r2, Integer r3, Integer r4, Integer r5) {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(5, r5 != null ? r5 : 0);
+        histogram.put(4, r4 != null ? r4 : 0);
+        histogram.put(3, r3 != null ? r3 : 0);
+        histogram.put(2, r2 != null ? r2 : 0);
+        histogram.put(1, r1 != null ? r1 : 0);
+
+        return new RatingSummaryResponse(
+                reviewCount != null ? reviewCount : 0,
+                averageRating != null ? averageRating : BigDecimal.ZERO,
+                histogram
+        );
+    }
+
+    private ReviewResponse toResponse(ProductReview review) {
+        return new ReviewResponse(
+                review.getProductReviewId(),
+                review.getProduct().getProductId(),
+                review.getUser().getUserId(),
+                review.getUser().getUsername(),
+                review.getUser().getFullName(),
+                review.getRating(),
+                review.getContent(),
+                review.getReviewDate()
+        );
+    }
+
+    private String trimToNull(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,234 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.SalesDashboardResponse;
+import com.bkplatform.dto.SalesDashboardResponse.Day;
+import com.bkplatform.dto.SalesDashboardResponse.TopProduct;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.model.Shop;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.ShopRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily sales rollups per shop and per product.
+ * Checkout and cancel apply their order as a +1/-1 delta in the same transaction; a scheduled job
+ * re-derives the last few days from orders so any drift (manual fixes, failed deltas) is corrected.
+ * The dashboard reads only the rollup tables: a year is ~365 rows per shop.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    // pg_try_advisory_xact_lock key: one reconcile at a time across instances
+    private static final long RECONCILE_LOCK_KEY = 0x5A1E5L;
+
+    // ✅ Rows are upserted in key order, so two multi-shop orders lock the rollup rows in the same order (no deadlock)
+
+    private static final String APPLY_SHOP_SQL = """
+            INSERT INTO shop_daily_sales AS s (shop_id, sales_date, order_count, units_sold, revenue)
+            SELECT oi.shop_id, CAST(o.order_date AS DATE), :sign,
+                   :sign * SUM(oi.quantity), :sign * SUM(oi.quantity * oi.price_snapshot)
+            FROM order_items oi
+            JOIN orders o ON o.order_id = oi.order_id
+            WHERE oi.order_id = :orderId
+            GROUP BY oi.shop_id, CAST(o.order_date AS DATE)
+            ORDER BY oi.shop_id
+            ON CONFLICT (shop_id, sales_date) DO UPDATE SET
+                order_count = s.order_count + EXCLUDED.order_count,
+                units_sold = s.units_sold + EXCLUDED.units_sold,
+                revenue = s.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String APPLY_PRODUCT_SQL = """
+            INSERT INTO product_daily_sales AS s (product_id, sales_date, shop_id, units_sold, revenue)
+            SELECT oi.product_id, CAST(o.order_date AS DATE), oi.shop_id,
+                   :sign * oi.quantity, :sign * oi.quantity * oi.price_snapshot
+            FROM order_items oi
+            JOIN orders o ON o.order_id = oi.order_id
+            WHERE oi.order_id = :orderId
+            ORDER BY oi.product_id
+            ON CONFLICT (product_id, sales_date) DO UPDATE SET
+                units_sold = s.units_sold + EXCLUDED.units_sold,
+                revenue = s.revenue + EXCLUDED.revenue
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ShopRepository shopRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.reconcile-days:2}")
+    private int reconcileDays;
+
+    @Value("${app.analytics.max-range-days:366}")
+    private int maxRangeDays;
+
+    public SalesRollupService(NamedParameterJdbcTemplate jdbcTemplate,
+                              ShopRepository shopRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shopRepository = shopRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds a just-placed order to its day. Must run in the checkout transaction as its last write:
+     * the upsert locks the hot shop/day row until commit.
+     */
+    public void recordOrder(Long orderId) {
+        apply(orderId, 1);
+    }
+
+    /**
+     * Removes a cancelled order from the day it was placed on. Must run in the cancel transaction, as its last write.
+     */
+    public void reverseOrder(Long orderId) {
+        apply(orderId, -1);
+    }
+
+    private void apply(Long orderId, int sign) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderId", orderId)
+                .addValue("sign", sign);
+        jdbcTemplate.update(APPLY_SHOP_SQL, params);
+        jdbcTemplate.update(APPLY_PRODUCT_SQL, params);
+    }
+
+    /**
+     * Idempotent catch-up: rebuilds the rollups of the last reconcile-days days from orders.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.reconcile-initial-delay-ms:300000}")
+    public void reconcile() {
+        LocalDate from = LocalDate.now().minusDays(reconcileDays - 1L);
+        LocalDate to = LocalDate.now().plusDays(1);
+
+        Boolean done = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("lockKey", RECONCILE_LOCK_KEY)
+                    .addValue("from", from)
+                    .addValue("to", to);
+
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:lockKey)", params, Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+
+            jdbcTemplate.update("DELETE FROM shop_daily_sales WHERE sales_date >= :from AND sales_date < :to", params);
+            jdbcTemplate.update("DELETE FROM product_daily_sales WHERE sales_date >= :from AND sales_date < :to", params);
+
+            jdbcTemplate.update("""
+                    INSERT INTO shop_daily_sales AS s (shop_id, sales_date, order_count, units_sold, revenue)
+                    SELECT oi.shop_id, CAST(o.order_date AS DATE), COUNT(DISTINCT o.order_id),
+                           SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+                    FROM orders o
+                    JOIN order_items oi ON oi.order_id = o.order_id
+                    WHERE o.order_date >= :from AND o.order_date < :to AND o.status <> 'CANCELLED'
+                    GROUP BY oi.shop_id, CAST(o.order_date AS DATE)
+                    ON CONFLICT (shop_id, sales_date) DO UPDATE SET
+                        order_count = EXCLUDED.order_count,
+                        units_sold = EXCLUDED.units_sold,
+                        revenue = EXCLUDED.revenue
+                    """, params);
+
+            jdbcTemplate.update("""
+                    INSERT INTO product_daily_sales AS s (product_id, sales_date, shop_id, units_sold, revenue)
+                    SELECT oi.product_id, CAST(o.order_date AS DATE), MIN(oi.shop_id),
+                           SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+                    FROM orders o
+                    JOIN order_items oi ON oi.order_id = o.order_id
+                    WHERE o.order_date >= :from AND o.order_date < :to AND o.status <> 'CANCELLED'
+                    GROUP BY oi.product_id, CAST(o.order_date AS DATE)
+                    ON CONFLICT (product_id, sales_date) DO UPDATE SET
+                        units_sold = EXCLUDED.units_sold,
+                        revenue = EXCLUDED.revenue
+                    """, params);
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(done)) {
+            log.info("Reconciled sales rollups from {} to {}", from, to.minusDays(1));
+        } else {
+            log.debug("Sales rollup reconcile running on another instance, skipping");
+        }
+    }
+
+    /**
+     * Revenue, units and orders per day plus top products for the owner's shop, inclusive range
+     */
+    @Transactional(readOnly = true)
+    public SalesDashboardResponse getDashboard(User owner, LocalDate from, LocalDate to, int topN) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from == null) {
+            from = to.minusDays(29);
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("shopId", shop.getShopId())
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("limit", Math.min(Math.max(topN, 1), 50));
+
+        Map<LocalDate, Day> byDate = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT sales_date, order_count, units_sold, revenue
+                FROM shop_daily_sales
+                WHERE shop_id = :shopId AND sales_date BETWEEN :from AND :to
+                """, params, rs -> {
+            LocalDate date = rs.getObject("sales_date", LocalDate.class);
+            byDate.put(date, new Day(date, rs.getLong("order_count"), rs.getLong("units_sold"), rs.getBigDecimal("revenue")));
+        });
+
+        List<Day> daily = new ArrayList<>();
+        long orders = 0;
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Day day = byDate.getOrDefault(date, new Day(date, 0, 0, BigDecimal.ZERO));
+            daily.add(day);
+            orders += day.getOrderCount();
+            units += day.getUnitsSold();
+            revenue = revenue.add(day.getRevenue());
+        }
+
+        List<TopProduct> topProducts = jdbcTemplate.query("""
+                SELECT s.product_id, p.name, SUM(s.units_sold) AS units_sold, SUM(s.revenue) AS revenue
+                FROM product_daily_sales s
+                JOIN products p ON p.product_id = s.product_id
+                WHERE s.shop_id = :shopId AND s.sales_date BETWEEN :from AND :to
+                GROUP BY s.product_id, p.name
+                HAVING SUM(s.units_sold) > 0
+                ORDER BY revenue DESC, s.product_id
+                LIMIT :limit
+                """, params, (rs, i) -> new TopProduct(
+                rs.getLong("product_id"), rs.getString("name"), rs.getLong("units_sold"), rs.getBigDecimal("revenue")));
+
+        return new SalesDashboardResponse(from, to, orders, units, revenue, daily, topProducts);
+    }
+}
@@ -0,0 +1,172 @@
+package com.bkplatform.service;
+
+import com.bkplatform.dto.ShippingQuoteRequest;
+import com.bkplatform.dto.ShippingQuoteResponse;
+import com.bkplatform.dto.ShippingQuoteResponse.Parcel;
+import com.bkplatform.dto.ShippingQuoteResponse.ProviderQuote;
+import com.bkplatform.exception.EmptyCartException;
+import com.bkplatform.exception.InvalidDataException;
+import com.bkplatform.model.*;
+import com.bkplatform.repository.CartItemRepository;
+import com.bkplatform.repository.CartRepository;
+import com.bkplatform.repository.ShipmentRepository;
+import com.bkplatform.repository.ShippingProviderRepository;
+import com.bkplatform.service.LocationHierarchy.WardPath;
+import com.bkplatform.service.ShippingRateTable.ProviderRates;
+import com.bkplatform.service.ShippingRateTable.Rate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Prices a cart across every shipping provider in one call.
+ * The cart is split into one parcel per shop; each parcel's zone comes from the shop's ward and
+ * the receiver's ward in the in-memory LocationHierarchy, and its price from the in-memory rate table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShippingQuoteService {
+
+    private final ShippingRateTable shippingRateTable;
+    private final LocationHierarchy locationHierarchy;
+    private final AddressBookService addressBookService;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final ShippingProviderRepository shippingProviderRepository;
+
+    @Transactional(readOnly = true)
+    public ShippingQuoteResponse quoteCart(User user, ShippingQuoteRequest request) {
+        Long wardId;
+        if (request.getAddressId() != null) {
+            AddressBook address = addressBookService.getOwned(request.getAddressId(), user);
+            wardId = address.getWard() == null ? null : address.getWard().getWardId();
+        } else if (request.getWardId() != null) {
+            wardId = request.getWardId();
+        } else {
+            throw new InvalidDataException("addressId or wardId is required");
+        }
+
+        List<CartItem> items = cartRepository.findByUser(user)
+                .map(cartItemRepository::findByCart)
+                .orElse(List.of());
+        return quote(items, wardId);
+    }
+
+    /**
+     * Quote for already loaded cart items; no SQL beyond the shops' addresses
+     */
+    public ShippingQuoteResponse quote(List<CartItem> items, Long receiverWardId) {
+        if (items.isEmpty()) {
+            throw new EmptyCartException("Cannot quote shipping for an empty cart");
+        }
+        WardPath receiver = locationHierarchy.findWard(receiverWardId)
+                .orElseThrow(() -> new InvalidDataException("Ward not found with id: " + receiverWardId));
+
+        List<Parcel> parcels = toParcels(items, receiver);
+
+        List<ProviderQuote> quotes = new ArrayList<>();
+        for (ProviderRates provider : shippingRateTable.getProviders()) {
+            priceParcels(provider, parcels).ifPresent(quotes::add);
+        }
+        quotes.sort(Comparator.comparing(ProviderQuote::getShippingCost));
+
+        return new ShippingQuoteResponse(parcels, quotes);
+    }
+
+    /**
+     * Creates the order's shipment inside the checkout transaction.
+     * Uses the requested provider, or the cheapest one that serves every parcel.
+     */
+    public Shipment createShipment(Order order, List<CartItem> items, AddressBook receiverAddress, Long providerId) {
+        Long wardId = receiverAddress.getWard() == null ? null : receiverAddress.getWard().getWardId();
+        ShippingQuoteResponse quote = quote(items, wardId);
+
+        ProviderQuote chosen = quote.getQuotes().stream()
+                .filter(q -> providerId == null || q.getProviderId().equals(providerId))
+                .findFirst()
+                .orElseThrow(() -> new InvalidDataException(providerId == null
+                        ? "No shipping provider serves this address"
+                        : "Shipping provider " + providerId + " does not serve this address"));
+
+        String pickUpAddress = items.stream()
+                .map(item -> item.getProduct().getShop())
+                .filter(shop -> shop.getAddress() != null)
+                .collect(Collectors.toMap(Shop::getShopId, shop -> addressBookService.formatAddress(shop.getAddress()),
+                        (a, b) -> a, LinkedHashMap::new))
+                .values().stream()
+                .collect(Collectors.joining("; "));
+
+        Shipment shipment = Shipment.builder()
+                .order(order)
+                .provider(shippingProviderRepository.getReferenceById(chosen.getProviderId()))
+                .shippingCost(chosen.getShippingCost())
+                .deliverDate(LocalDate.now().plusDays(chosen.getEstimatedDays()))
+                .receiverAddress(addressBookService.formatAddress(receiverAddress))
+                .pickUpAddress(pickUpAddress)
+                .build();
+        shipment = shipmentRepository.save(shipment);
+
+        log.info("Created shipment {} for order {} via provider {} ({})",
+                shipment.getShipmentId(), order.getOrderId(), chosen.getProviderName(), chosen.getShippingCost());
+        return shipment;
+    }
+
+    public List<ProviderRates> getProviders() {
+        return shippingRateTable.getProviders();
+    }
+
+    private List<Parcel> toParcels(List<CartItem> items, WardPath receiver) {
+        Map<Long, Parcel> byShop = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            Shop shop = item.getProduct().getShop();
+            Parcel parcel = byShop.computeIfAbsent(shop.getShopId(),
+                    id -> new Parcel(id, shop.getName(), zoneOf(shop, receiver), 0));
+            parcel.setItemCount(parcel.getItemCount() + item.getQuantity());
+        }
+        return new ArrayList<>(byShop.values());
+    }
+
+    /**
+     * Shops without an address are priced as inter-province, the most expensive zone
+     */
+    private ShippingZone zoneOf(Shop shop, WardPath receiver) {
+        Optional<WardPath> pickup = Optional.ofNullable(shop.getAddress())
+                .map(AddressBook::getWard)
+                .flatMap(ward -> locationHierarchy.findWard(ward.getWardId()));
+
+        if (pickup.isEmpty() || !pickup.get().provinceId().equals(receiver.provinceId())) {
+            return ShippingZone.INTER_PROVINCE;
+        }
+        return pickup.get().districtId().equals(receiver.districtId())
+                ? ShippingZone.SAME_DISTRICT
+                : ShippingZone.SAME_PROVINCE;
+    }
+
+    private static Optional<ProviderQuote> priceParcels(ProviderRates provider, List<Parcel> parcels) {
+        BigDecimal total = BigDecimal.ZERO;
+        int days = 0;
+
+        for (Parcel parcel : parcels) {
+            Rate rate = provider.rates().get(parcel.getZone());
+            if (rate == null) {
+                return Optional.empty();
+            }
+            total = total.add(rate.priceFor(parcel.getItemCount()));
+            days = Math.max(days, rate.deliveryDays());
+        }
+        return Optional.of(new ProviderQuote(provider.providerId(), provider.providerName(), total, days));
+    }
+}
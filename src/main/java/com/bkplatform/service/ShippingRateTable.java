@@ -0,0 +1,88 @@
+package com.bkplatform.service;
+
+import com.bkplatform.model.ShippingZone;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Provider × zone rate matrix, held in memory so a quote is a few map lookups and no SQL.
+ * Rebuilt as a whole and swapped in with one volatile write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShippingRateTable {
+
+    public record Rate(BigDecimal baseFee, BigDecimal extraItemFee, int deliveryDays) {
+
+        /**
+         * Base fee covers the first item of a parcel, every further item adds extraItemFee
+         */
+        public BigDecimal priceFor(int itemCount) {
+            return baseFee.add(extraItemFee.multiply(BigDecimal.valueOf(Math.max(itemCount - 1, 0))));
+        }
+    }
+
+    public record ProviderRates(Long providerId, String providerName, Map<ShippingZone, Rate> rates) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Map<Long, ProviderRates> providers = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not load shipping rates at startup: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        Map<Long, String> names = new LinkedHashMap<>();
+        Map<Long, Map<ShippingZone, Rate>> rates = new LinkedHashMap<>();
+
+        jdbcTemplate.query("""
+                SELECT p.provider_id, p.provider_name, r.zone, r.base_fee, r.extra_item_fee, r.delivery_days
+                FROM shipping_rate r
+                JOIN shipping_provider p ON p.provider_id = r.provider_id
+                ORDER BY p.provider_name
+                """, rs -> {
+            Long providerId = rs.getLong("provider_id");
+            names.put(providerId, rs.getString("provider_name"));
+            rates.computeIfAbsent(providerId, id -> new EnumMap<>(ShippingZone.class))
+                    .put(ShippingZone.valueOf(rs.getString("zone")), new Rate(
+                            rs.getBigDecimal("base_fee"),
+                            rs.getBigDecimal("extra_item_fee"),
+                            rs.getInt("delivery_days")));
+        });
+
+        Map<Long, ProviderRates> loaded = new LinkedHashMap<>();
+        rates.forEach((id, zoneRates) -> loaded.put(id,
+                new ProviderRates(id, names.get(id), Collections.unmodifiableMap(zoneRates))));
+        providers = Collections.unmodifiableMap(loaded);
+
+        log.info("Loaded shipping rates for {} providers", loaded.size());
+    }
+
+    public List<ProviderRates> getProviders() {
+        return List.copyOf(providers.values());
+    }
+
+    public Optional<ProviderRates> findProvider(Long providerId) {
+        return Optional.ofNullable(providers.get(providerId));
+    }
+}
@@ -0,0 +1,130 @@
+package com.bkplatform.service;
+
+import com.bkplatform.config.CacheConfig;
+import com.bkplatform.dto.ProductSummaryResponse;
+import com.bkplatform.dto.RatingSummaryResponse;
+import com.bkplatform.dto.ShopOwnerSummaryResponse;
+import com.bkplatform.dto.ShopStorefrontResponse;
+import com.bkplatform.exception.ResourceNotFoundException;
+import com.bkplatform.model.Product;
+import com.bkplatform.model.Shop;
+import com.bkplatform.model.User;
+import com.bkplatform.repository.ProductImageRepository;
+import com.bkplatform.repository.ProductRepository;
+import com.bkplatform.repository.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShopService {
+
+    private final ShopRepository shopRepository;
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+
+    @Value("${app.shop.storefront-page-size:12}")
+    private int storefrontPageSize;
+
+    /**
+     * Public storefront: profile, product count, rating summary and the first page of products.
+     * ✅ Cached per shop; ProductService / ReviewService evict it on every change that affects it
+     */
+    @Cacheable(cacheNames = CacheConfig.SHOP_STOREFRONT, key = "#shopId")
+    @Transactional(readOnly = true)
+    public ShopStorefrontResponse getStorefront(Long shopId) {
+        log.debug("Building storefront for shop {}", shopId);
+
+        Shop shop = shopRepository.findById(shopId)
+                .orElseThrow(() -> new ResourceNotFoundException("Shop not found with id: " + shopId));
+
+        List<Product> page = productRepository
+                .findByShopOrderByCreatedDateDesc(shop, PageRequest.of(0, storefrontPageSize));
+
+        // Thumbnails for the whole page in one primary-key lookup
+        Map<Long, String> thumbnails = new HashMap<>();
+        List<Long> imageIds = page.stream().map(Product::getPrimaryImageId).filter(Objects::nonNull).toList();
+        if (!imageIds.isEmpty()) {
+            productImageRepository.findUrlsByImageIds(imageIds)
+                    .forEach(img -> thumbnails.put(img.getImageId(), ProductImageService.thumbnailUrl(img.getImageUrl())));
+        }
+
+        List<ProductSummaryResponse> products = page.stream()
+                .map(product -> toSummary(product, thumbnails.get(product.getPrimaryImageId())))
+                .toList();
+
+        ShopStorefrontResponse response = new ShopStorefrontResponse();
+        response.setShopId(shop.getShopId());
+        response.setName(shop.getName());
+        response.setOwnerId(shop.getOwner().getUserId());
+        response.setOwnerName(shop.getOwner().getFullName());
+        // A short first page is the whole catalog; only count when there may be more
+        response.setProductCount(products.size() < storefrontPageSize
+                ? products.size()
+                : productRepository.countByShop(shop));
+        response.setRating(toRatingSummary(shop));
+        response.setProducts(products);
+        response.setPageSize(storefrontPageSize);
+        response.setGeneratedAt(Instant.now());
+        return response;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SHOP_STOREFRONT, key = "#shopId")
+    public void evictStorefront(Long shopId) {
+        log.debug("Evicted storefront cache for shop {}", shopId);
+    }
+
+    /**
+     * Owner dashboard counts: always live, one grouped query
+     */
+    @Transactional(readOnly = true)
+    public ShopOwnerSummaryResponse getOwnerSummary(User owner) {
+        Shop shop = shopRepository.findByOwner(owner)
+                .orElseThrow(() -> new ResourceNotFoundException("You don't have a shop yet"));
+
+        ProductRepository.StockCounts counts = productRepository.countStockByShop(shop);
+
+        ShopOwnerSummaryResponse response = new ShopOwnerSummaryResponse();
+        response.setShopId(shop.getShopId());
+        response.setName(shop.getName());
+        response.setProductCount(counts.getTotal());
+        response.setInStockCount(counts.getInStock());
+        response.setOutOfStockCount(counts.getTotal() - counts.getInStock());
+        response.setRating(toRatingSummary(shop));
+        return response;
+    }
+
+    private static RatingSummaryResponse toRatingSummary(Shop shop) {
+        return ReviewService.toSummary(shop.getReviewCount(), shop.getAverageRating(),
+                shop.getRating1Count(), shop.getRating2Count(), shop.getRating3Count(),
+                shop.getRating4Count(), shop.getRating5Count());
+    }
+
+    static ProductSummaryResponse toSummary(Product product, String thumbnailUrl) {
+        return new ProductSummaryResponse(
+                product.getProductId(),
+                product.getName(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getAverageRating(),
+                product.getReviewCount(),
+                product.getUnitsSold(),
+                product.getCategory() != null ? product.getCategory().getCategoryId() : null,
+                product.getCategory() != null ? product.getCategory().getCategoryName() : null,
+                thumbnailUrl
+        );
+    }
+}
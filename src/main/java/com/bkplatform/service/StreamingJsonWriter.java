@@ -0,0 +1,90 @@
+package com.bkplatform.service;
+
+import com.bkplatform.config.QueryCounter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JPA result stream as a JSON array while rows are read from the cursor.
+ * The JSON shape is the same as returning the List, but neither the list nor the
+ * serialized body is ever held in memory, and the persistence context is cleared
+ * every few hundred rows so loaded entities can be collected.
+ */
+@Slf4j
+@Component
+public class StreamingJsonWriter {
+
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.streaming.clear-every:500}")
+    private int clearEvery;
+
+    public StreamingJsonWriter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        // Flushing after every element would turn each row into its own chunk on the wire
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Response body that opens a read-only transaction, runs the query and streams its rows.
+     * The query runs on the async request thread, after the controller has returned; its statements
+     * are still counted against the request (and its @StatementBudget) when query counting is on.
+     */
+    public <T> StreamingResponseBody array(String name, Supplier<Stream<T>> query) {
+        QueryCounter.Request counter = QueryCounter.current();
+        return out -> {
+            long start = System.currentTimeMillis();
+            long[] count = {0};
+
+            QueryCounter.bind(counter);
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get()) {
+                        rows.forEach(row -> {
+                            try {
+                                writer.writeValue(json, row);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            if (++count[0] % clearEvery == 0) {
+                                entityManager.clear();
+                            }
+                        });
+                    }
+                });
+                json.writeEndArray();
+            } catch (UncheckedIOException e) {
+                // Client disconnected: the cursor is already closed by try-with-resources
+                throw e.getCause();
+            } finally {
+                // Pooled thread: never leave the counter behind for the next task
+                QueryCounter.clear();
+            }
+
+            log.debug("Streamed {} {} rows in {}ms", count[0], name, System.currentTimeMillis() - start);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.bkplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local gateway for development and tests: waits a little like a real provider would,
+ * then settles synchronously. Amounts above the decline threshold are declined.
+ * Results are remembered per transaction for status lookups until restart.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${app.payments.stub.latency-ms:200}")
+    private long latencyMs;
+
+    @Value("${app.payments.stub.decline-above:100000000}")
+    private BigDecimal declineAbove;
+
+    private final Map<Long, ChargeResult> charges = new ConcurrentHashMap<>();
+    private final Map<Long, ChargeResult> refunds = new ConcurrentHashMap<>();
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        simulateLatency("charging");
+
+        String reference = "stub-" + UUID.randomUUID();
+        ChargeResult result;
+        if (request.amount().compareTo(declineAbove) > 0) {
+            log.debug("Stub gateway declined transaction {} ({})", request.transactionId(), request.amount());
+            result = new ChargeResult(Outcome.DECLINED, reference, "Amount above stub limit");
+        } else {
+            result = new ChargeResult(Outcome.SUCCEEDED, reference, null);
+        }
+        charges.put(request.transactionId(), result);
+        return result;
+    }
+
+    @Override
+    public ChargeResult status(Long transactionId, String reference) {
+        ChargeResult result = charges.get(transactionId);
+        return result != null ? result : new ChargeResult(Outcome.NOT_FOUND, reference, "No charge for this transaction");
+    }
+
+    @Override
+    public ChargeResult refund(RefundRequest request) {
+        simulateLatency("refunding");
+
+        ChargeResult charge = charges.get(request.transactionId());
+        if (charge != null && charge.outcome() != Outcome.SUCCEEDED) {
+            return new ChargeResult(Outcome.DECLINED, request.reference(), "Charge was not settled");
+        }
+        // Idempotent per transaction; after a restart the stub has no record and refunds anyway
+        return refunds.computeIfAbsent(request.transactionId(), id -> {
+            log.debug("Stub gateway refunded transaction {} ({})", id, request.amount());
+            return new ChargeResult(Outcome.SUCCEEDED, "stub-refund-" + UUID.randomUUID(), null);
+        });
+    }
+
+    private void simulateLatency(String action) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while " + action, e);
+        }
+    }
+}
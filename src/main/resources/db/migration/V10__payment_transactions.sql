@@ -0,0 +1,7 @@
+-- Gateway charge id, written once the payment provider accepted the charge
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS gateway_reference VARCHAR(100);
+
+-- Recovery sweep for online payments whose settlement task was lost
+CREATE INDEX IF NOT EXISTS idx_transactions_pending_online
+    ON transactions(transaction_date)
+    WHERE transaction_status = 'pending' AND transaction_method <> 'COD';
@@ -0,0 +1,51 @@
+-- Order lifecycle (PLACED → PAID → SHIPPED → DELIVERED, or CANCELLED) replaces hard-deleting cancelled orders
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'PLACED';
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS status_updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'orders_status_check') THEN
+        ALTER TABLE orders ADD CONSTRAINT orders_status_check
+            CHECK (status IN ('PLACED','PAID','SHIPPED','DELIVERED','CANCELLED'));
+    END IF;
+END $$;
+
+-- Existing online payments that already settled
+UPDATE orders o SET status = 'PAID'
+FROM transactions t
+WHERE t.order_id = o.order_id AND t.transaction_status = 'paid' AND o.status = 'PLACED';
+
+-- One small partial index per active status: finished orders (the bulk of the table) are never scanned
+CREATE INDEX IF NOT EXISTS idx_orders_status_placed ON orders(order_id) WHERE status = 'PLACED';
+CREATE INDEX IF NOT EXISTS idx_orders_status_paid ON orders(order_id) WHERE status = 'PAID';
+CREATE INDEX IF NOT EXISTS idx_orders_status_shipped ON orders(order_id) WHERE status = 'SHIPPED';
+
+-- Buyer order history and seller lookups by product
+CREATE INDEX IF NOT EXISTS idx_orders_user_date ON orders(user_id, order_date DESC);
+CREATE INDEX IF NOT EXISTS idx_order_items_product ON order_items(product_id);
+
+-- Cancelled orders no longer count as sales: rebuild the ranking with the order status join.
+-- Same columns as V4; RankingService's next refresh copies the corrected units_sold onto products.
+DROP MATERIALIZED VIEW IF EXISTS product_ranking;
+
+CREATE MATERIALIZED VIEW product_ranking AS
+WITH global_rating AS (
+    SELECT COALESCE(CAST(SUM(rating_sum) AS numeric) / NULLIF(SUM(review_count), 0), 0) AS mean
+    FROM products
+)
+SELECT p.product_id,
+       p.category_id,
+       CAST(COALESCE(s.units_sold, 0) AS INT) AS units_sold,
+       CAST((10 * g.mean + p.rating_sum) / (10 + p.review_count) AS DECIMAL(4,3)) AS rating_score
+FROM products p
+CROSS JOIN global_rating g
+LEFT JOIN (
+    SELECT oi.product_id, SUM(oi.quantity) AS units_sold
+    FROM order_items oi
+    JOIN orders o ON o.order_id = oi.order_id
+    WHERE o.status <> 'CANCELLED'
+    GROUP BY oi.product_id
+) s ON s.product_id = p.product_id;
+
+-- Required for REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE UNIQUE INDEX IF NOT EXISTS uq_product_ranking_product ON product_ranking (product_id);
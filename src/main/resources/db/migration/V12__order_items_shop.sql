@@ -0,0 +1,12 @@
+-- Seller of each order line, copied from the product at checkout.
+-- Seller feeds read order_items by shop directly instead of joining through products.
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS shop_id INT REFERENCES shop(shop_id);
+
+UPDATE order_items oi SET shop_id = p.shop_id
+FROM products p
+WHERE p.product_id = oi.product_id AND oi.shop_id IS NULL;
+
+ALTER TABLE order_items ALTER COLUMN shop_id SET NOT NULL;
+
+-- Newest-first keyset scans per shop
+CREATE INDEX IF NOT EXISTS idx_order_items_shop_order ON order_items(shop_id, order_id DESC);
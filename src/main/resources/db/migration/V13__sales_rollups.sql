@@ -0,0 +1,42 @@
+-- Daily sales rollups for the seller dashboard (non-cancelled orders, by order date).
+-- Maintained incrementally by checkout/cancel and re-derived for recent days by SalesRollupService.reconcile.
+CREATE TABLE IF NOT EXISTS shop_daily_sales (
+    shop_id INT NOT NULL REFERENCES shop(shop_id) ON DELETE CASCADE,
+    sales_date DATE NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    units_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (shop_id, sales_date)
+);
+
+CREATE TABLE IF NOT EXISTS product_daily_sales (
+    product_id INT NOT NULL REFERENCES products(product_id) ON DELETE CASCADE,
+    sales_date DATE NOT NULL,
+    shop_id INT NOT NULL REFERENCES shop(shop_id) ON DELETE CASCADE,
+    units_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, sales_date)
+);
+
+-- Top products of a shop over a date range
+CREATE INDEX IF NOT EXISTS idx_product_daily_sales_shop_date ON product_daily_sales(shop_id, sales_date);
+
+-- Reconcile scans orders by date
+CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders(order_date);
+
+-- Backfill from existing orders
+INSERT INTO shop_daily_sales(shop_id, sales_date, order_count, units_sold, revenue)
+SELECT oi.shop_id, CAST(o.order_date AS DATE), COUNT(DISTINCT o.order_id), SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+FROM order_items oi
+JOIN orders o ON o.order_id = oi.order_id
+WHERE o.status <> 'CANCELLED'
+GROUP BY oi.shop_id, CAST(o.order_date AS DATE)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO product_daily_sales(product_id, sales_date, shop_id, units_sold, revenue)
+SELECT oi.product_id, CAST(o.order_date AS DATE), MIN(oi.shop_id), SUM(oi.quantity), SUM(oi.quantity * oi.price_snapshot)
+FROM order_items oi
+JOIN orders o ON o.order_id = oi.order_id
+WHERE o.status <> 'CANCELLED'
+GROUP BY oi.product_id, CAST(o.order_date AS DATE)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,7 @@
+-- When the payment last changed status, set by every TransactionRepository.transition
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS status_changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Timeout sweep for charges stuck in processing (worker died mid-call, callback never arrived)
+CREATE INDEX IF NOT EXISTS idx_transactions_processing
+    ON transactions(status_changed_at)
+    WHERE transaction_status = 'processing';
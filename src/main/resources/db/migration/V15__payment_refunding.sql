@@ -0,0 +1,4 @@
+-- Retry sweep for refunds the gateway has not confirmed yet (task lost, provider error)
+CREATE INDEX IF NOT EXISTS idx_transactions_refunding
+    ON transactions(status_changed_at)
+    WHERE transaction_status = 'refunding';
@@ -0,0 +1,8 @@
+-- Per-shop fulfilment: each seller ships its own lines of a multi-shop order.
+-- The order moves to SHIPPED once no line is left unshipped (OrderService.markShipped).
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS shipped_at TIMESTAMP;
+
+-- Orders shipped before this migration shipped as a whole
+UPDATE order_items oi SET shipped_at = o.status_updated_at
+FROM orders o
+WHERE o.order_id = oi.order_id AND o.status IN ('SHIPPED', 'DELIVERED') AND oi.shipped_at IS NULL;
@@ -0,0 +1,73 @@
+-- RATING AGGREGATES
+-- Maintained incrementally by ReviewService in the same transaction as the review write,
+-- so listings never need AVG() over product_review.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS review_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS average_rating DECIMAL(3,2) NOT NULL DEFAULT 0;
+
+ALTER TABLE shop
+    ADD COLUMN IF NOT EXISTS review_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5_count INT NOT NULL DEFAULT 0;
+
+-- Backfill from any reviews written before the aggregates existed
+UPDATE products p SET
+    review_count = r.cnt,
+    rating_sum = r.total,
+    rating_1_count = r.r1,
+    rating_2_count = r.r2,
+    rating_3_count = r.r3,
+    rating_4_count = r.r4,
+    rating_5_count = r.r5,
+    average_rating = ROUND(CAST(r.total AS numeric) / r.cnt, 2)
+FROM (
+    SELECT product_id,
+           COUNT(*) AS cnt,
+           SUM(rating) AS total,
+           COUNT(*) FILTER (WHERE rating = 1) AS r1,
+           COUNT(*) FILTER (WHERE rating = 2) AS r2,
+           COUNT(*) FILTER (WHERE rating = 3) AS r3,
+           COUNT(*) FILTER (WHERE rating = 4) AS r4,
+           COUNT(*) FILTER (WHERE rating = 5) AS r5
+    FROM product_review
+    GROUP BY product_id
+) r
+WHERE p.product_id = r.product_id;
+
+UPDATE shop s SET
+    review_count = a.cnt,
+    rating_sum = a.total,
+    rating_1_count = a.r1,
+    rating_2_count = a.r2,
+    rating_3_count = a.r3,
+    rating_4_count = a.r4,
+    rating_5_count = a.r5,
+    average_rating = ROUND(CAST(a.total AS numeric) / a.cnt, 1)
+FROM (
+    SELECT shop_id,
+           SUM(review_count) AS cnt,
+           SUM(rating_sum) AS total,
+           SUM(rating_1_count) AS r1,
+           SUM(rating_2_count) AS r2,
+           SUM(rating_3_count) AS r3,
+           SUM(rating_4_count) AS r4,
+           SUM(rating_5_count) AS r5
+    FROM products
+    GROUP BY shop_id
+    HAVING SUM(review_count) > 0
+) a
+WHERE s.shop_id = a.shop_id;
+
+-- Indexes for rating sort and review listing
+CREATE INDEX IF NOT EXISTS idx_products_average_rating ON products (average_rating DESC, review_count DESC);
+CREATE INDEX IF NOT EXISTS idx_product_review_product_date ON product_review (product_id, review_date DESC);
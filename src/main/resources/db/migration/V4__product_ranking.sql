@@ -0,0 +1,33 @@
+-- RANKING COLUMNS
+-- Copied from product_ranking by RankingService so bestseller / top-rated sorts are plain indexed column sorts.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS units_sold INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_score DECIMAL(4,3) NOT NULL DEFAULT 0;
+
+-- PRODUCT RANKING
+-- rating_score is a Bayesian average: every product starts with 10 virtual reviews at the global mean,
+-- so a single 5-star review does not outrank hundreds of 4.8s.
+CREATE MATERIALIZED VIEW IF NOT EXISTS product_ranking AS
+WITH global_rating AS (
+    SELECT COALESCE(CAST(SUM(rating_sum) AS numeric) / NULLIF(SUM(review_count), 0), 0) AS mean
+    FROM products
+)
+SELECT p.product_id,
+       p.category_id,
+       CAST(COALESCE(s.units_sold, 0) AS INT) AS units_sold,
+       CAST((10 * g.mean + p.rating_sum) / (10 + p.review_count) AS DECIMAL(4,3)) AS rating_score
+FROM products p
+CROSS JOIN global_rating g
+LEFT JOIN (
+    SELECT product_id, SUM(quantity) AS units_sold
+    FROM order_items
+    GROUP BY product_id
+) s ON s.product_id = p.product_id;
+
+-- Required for REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE UNIQUE INDEX IF NOT EXISTS uq_product_ranking_product ON product_ranking (product_id);
+
+CREATE INDEX IF NOT EXISTS idx_products_units_sold ON products (units_sold DESC);
+CREATE INDEX IF NOT EXISTS idx_products_category_units_sold ON products (category_id, units_sold DESC);
+CREATE INDEX IF NOT EXISTS idx_products_rating_score ON products (rating_score DESC);
+CREATE INDEX IF NOT EXISTS idx_products_category_rating_score ON products (category_id, rating_score DESC);
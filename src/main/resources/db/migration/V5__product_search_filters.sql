@@ -0,0 +1,4 @@
+-- Indexes for the price-range and in-stock search filters
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price);
+CREATE INDEX IF NOT EXISTS idx_products_category_price ON products (category_id, price);
+CREATE INDEX IF NOT EXISTS idx_products_in_stock ON products (created_date DESC) WHERE stock_quantity > 0;
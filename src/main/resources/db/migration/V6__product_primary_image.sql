@@ -0,0 +1,17 @@
+-- Primary image pointer on products, so listings resolve thumbnails by primary key
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS primary_image_id INT REFERENCES product_images(image_id) ON DELETE SET NULL;
+
+-- Backfill: the first uploaded image of each product
+UPDATE products p
+SET primary_image_id = first_image.image_id
+FROM (
+    SELECT product_id, MIN(image_id) AS image_id
+    FROM product_images
+    GROUP BY product_id
+) first_image
+WHERE first_image.product_id = p.product_id
+  AND p.primary_image_id IS NULL;
+
+-- Page-wide image loads (product_id IN (...)) and next-primary lookups
+CREATE INDEX IF NOT EXISTS idx_product_images_product ON product_images (product_id, image_id);
@@ -0,0 +1,2 @@
+-- Optimistic concurrency for products: every write bumps the version
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
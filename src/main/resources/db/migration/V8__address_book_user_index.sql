@@ -0,0 +1,2 @@
+-- Address book is always read per user
+CREATE INDEX IF NOT EXISTS idx_address_book_user ON address_book(user_id);
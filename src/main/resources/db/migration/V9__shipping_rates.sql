@@ -0,0 +1,33 @@
+-- Shipping rate table: one row per provider and zone, loaded into memory by ShippingRateTable.
+-- Zone is derived from the pickup (shop) and receiver wards:
+--   SAME_DISTRICT  both wards in the same district
+--   SAME_PROVINCE  same province, different district
+--   INTER_PROVINCE everything else (also used when the shop has no address)
+CREATE TABLE IF NOT EXISTS shipping_rate (
+    provider_id INT NOT NULL REFERENCES shipping_provider(provider_id) ON DELETE CASCADE,
+    zone VARCHAR(20) NOT NULL CHECK (zone IN ('SAME_DISTRICT','SAME_PROVINCE','INTER_PROVINCE')),
+    base_fee DECIMAL(12,2) NOT NULL CHECK (base_fee >= 0),
+    extra_item_fee DECIMAL(12,2) NOT NULL DEFAULT 0 CHECK (extra_item_fee >= 0),
+    delivery_days INT NOT NULL CHECK (delivery_days > 0),
+    PRIMARY KEY (provider_id, zone)
+);
+
+INSERT INTO shipping_provider(provider_name, contact_number) VALUES ('Giao Hang Nhanh', '1900636677') ON CONFLICT DO NOTHING;
+INSERT INTO shipping_provider(provider_name, contact_number) VALUES ('Giao Hang Tiet Kiem', '1900636886') ON CONFLICT DO NOTHING;
+INSERT INTO shipping_provider(provider_name, contact_number) VALUES ('Viettel Post', '19008095') ON CONFLICT DO NOTHING;
+
+INSERT INTO shipping_rate(provider_id, zone, base_fee, extra_item_fee, delivery_days)
+SELECT p.provider_id, r.zone, r.base_fee, r.extra_item_fee, r.delivery_days
+FROM shipping_provider p
+JOIN (VALUES
+    ('Giao Hang Nhanh',     'SAME_DISTRICT',  15000, 2000, 1),
+    ('Giao Hang Nhanh',     'SAME_PROVINCE',  22000, 3000, 2),
+    ('Giao Hang Nhanh',     'INTER_PROVINCE', 32000, 5000, 4),
+    ('Giao Hang Tiet Kiem', 'SAME_DISTRICT',  14000, 2500, 2),
+    ('Giao Hang Tiet Kiem', 'SAME_PROVINCE',  20000, 3500, 3),
+    ('Giao Hang Tiet Kiem', 'INTER_PROVINCE', 30000, 5000, 5),
+    ('Viettel Post',        'SAME_DISTRICT',  16000, 2000, 1),
+    ('Viettel Post',        'SAME_PROVINCE',  23000, 2500, 2),
+    ('Viettel Post',        'INTER_PROVINCE', 35000, 4000, 3)
+) AS r(provider_name, zone, base_fee, extra_item_fee, delivery_days) ON r.provider_name = p.provider_name
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,67 @@
+package com.bkplatform.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Every cart endpoint against a cart holding one line and one holding MANY
+ */
+class CartControllerStatementCountTest extends StatementCountIntegrationTest {
+
+    @Test
+    void getCartDoesNotDependOnCartSize() throws Exception {
+        List<Long> products = catalog(uniqueName("Balo laptop"));
+        TestUser small = buyerWith(products.subList(0, 1));
+        TestUser large = buyerWith(products);
+
+        assertIndependentOfRows(
+                measure(as(small, get("/api/cart"))),
+                measure(as(large, get("/api/cart"))));
+    }
+
+    @Test
+    void addItemDoesNotDependOnCartSize() throws Exception {
+        List<Long> products = catalog(uniqueName("Chuột không dây"));
+        Long extra = products(jdbcTemplate.queryForObject(
+                "SELECT shop_id FROM products WHERE product_id = ?", Long.class, products.get(0)), uniqueName("Lót chuột"), 1).get(0);
+        TestUser small = buyerWith(products.subList(0, 1));
+        TestUser large = buyerWith(products);
+
+        String body = """
+                {"productId": %d, "quantity": 2}""".formatted(extra);
+        assertIndependentOfRows(
+                measure(as(small, post("/api/cart/items")).contentType(MediaType.APPLICATION_JSON).content(body)),
+                measure(as(large, post("/api/cart/items")).contentType(MediaType.APPLICATION_JSON).content(body)));
+    }
+
+    @Test
+    void updateItemDoesNotDependOnCartSize() throws Exception {
+        List<Long> products = catalog(uniqueName("Máy tính Casio"));
+        TestUser small = buyerWith(products.subList(0, 1));
+        TestUser large = buyerWith(products);
+
+        String body = """
+                {"quantity": 3}""";
+        assertIndependentOfRows(
+                measure(as(small, put("/api/cart/items/{id}", products.get(0))).contentType(MediaType.APPLICATION_JSON).content(body)),
+                measure(as(large, put("/api/cart/items/{id}", products.get(0))).contentType(MediaType.APPLICATION_JSON).content(body)));
+    }
+
+    @Test
+    void removeItemDoesNotDependOnCartSize() throws Exception {
+        List<Long> products = catalog(uniqueName("Giáo trình Giải tích"));
+        TestUser small = buyerWith(products.subList(0, 1));
+        TestUser large = buyerWith(products);
+
+        assertIndependentOfRows(
+                measure(as(small, delete("/api/cart/items/{id}", products.get(0)))),
+                measure(as(large, delete("/api/cart/items/{id}", products.get(0)))));
+    }
+}
@@ -0,0 +1,78 @@
+package com.bkplatform.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Conversation list with one conversation vs MANY, message history (streamed) and send with one message vs MANY
+ */
+class ConversationControllerStatementCountTest extends StatementCountIntegrationTest {
+
+    @Test
+    void listDoesNotDependOnConversationCount() throws Exception {
+        TestUser small = user("USER");
+        conversation(small, user("SHOP_OWNER"), 1);
+        TestUser large = user("USER");
+        for (int i = 0; i < MANY; i++) {
+            conversation(large, user("SHOP_OWNER"), 1);
+        }
+
+        assertIndependentOfRows(
+                measure(as(small, get("/api/conversations"))),
+                measure(as(large, get("/api/conversations"))));
+    }
+
+    @Test
+    void streamedMessagesDoNotDependOnMessageCount() throws Exception {
+        TestUser small = user("USER");
+        long smallConversation = conversation(small, user("SHOP_OWNER"), 1);
+        TestUser large = user("USER");
+        long largeConversation = conversation(large, user("SHOP_OWNER"), MANY);
+
+        assertIndependentOfRows(
+                measure(as(small, get("/api/conversations/{id}/messages", smallConversation))),
+                measure(as(large, get("/api/conversations/{id}/messages", largeConversation))));
+    }
+
+    @Test
+    void sendDoesNotDependOnMessageCount() throws Exception {
+        TestUser small = user("USER");
+        TestUser smallShop = user("SHOP_OWNER");
+        conversation(small, smallShop, 1);
+        TestUser large = user("USER");
+        TestUser largeShop = user("SHOP_OWNER");
+        conversation(large, largeShop, MANY);
+
+        assertIndependentOfRows(
+                measure(as(small, post("/api/conversations/{id}/messages", smallShop.id()))
+                        .contentType(MediaType.TEXT_PLAIN).content("Còn hàng không ạ?")),
+                measure(as(large, post("/api/conversations/{id}/messages", largeShop.id()))
+                        .contentType(MediaType.TEXT_PLAIN).content("Còn hàng không ạ?")));
+    }
+
+    @Test
+    void sendOpeningConversation() throws Exception {
+        TestUser buyer = user("USER");
+        TestUser shop = user("SHOP_OWNER");
+
+        assertWithinBudget(measure(as(buyer, post("/api/conversations/{id}/messages", shop.id()))
+                .contentType(MediaType.TEXT_PLAIN).content("Xin chào shop")));
+    }
+
+    /**
+     * Conversation between the two users with `messages` messages, alternating senders
+     */
+    private long conversation(TestUser buyer, TestUser shop, int messages) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO conversation (user1_id, user2_id) VALUES (?, ?) RETURNING conversation_id",
+                Long.class, buyer.id(), shop.id());
+        for (int i = 0; i < messages; i++) {
+            jdbcTemplate.update("INSERT INTO message (conversation_id, sender_id, content) VALUES (?, ?, ?)",
+                    id, i % 2 == 0 ? buyer.id() : shop.id(), "Tin nhắn " + i);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bkplatform.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Checkout, cancel and order reads with one order line vs MANY, and the streamed history with one order vs MANY
+ */
+class OrderControllerStatementCountTest extends StatementCountIntegrationTest {
+
+    @Test
+    void checkoutDoesNotDependOnCartSize() throws Exception {
+        List<Long> products = catalog(uniqueName("Sách tiếng Anh"));
+        TestUser small = buyerWith(products.subList(0, 1));
+        TestUser large = buyerWith(products);
+
+        assertIndependentOfRows(
+                measure(as(small, post("/api/orders/checkout"))),
+                measure(as(large, post("/api/orders/checkout"))));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items oi JOIN orders o ON o.order_id = oi.order_id WHERE o.user_id = ?",
+                Integer.class, large.id())).isEqualTo(MANY);
+    }
+
+    @Test
+    void streamedHistoryDoesNotDependOnOrderCount() throws Exception {
+        List<Long> products = catalog(uniqueName("Vật lý đại cương"));
+        TestUser small = user("USER");
+        insertOrders(small, products.get(0), 1);
+        TestUser large = user("USER");
+        insertOrders(large, products.get(0), MANY);
+
+        assertIndependentOfRows(
+                measure(as(small, get("/api/orders"))),
+                measure(as(large, get("/api/orders"))));
+    }
+
+    @Test
+    void getOrderDoesNotDependOnLineCount() throws Exception {
+        List<Long> products = catalog(uniqueName("Giáo trình Đại số"));
+        TestUser small = user("USER");
+        long smallOrder = placeOrder(small, products.subList(0, 1));
+        TestUser large = user("USER");
+        long largeOrder = placeOrder(large, products);
+
+        assertIndependentOfRows(
+                measure(as(small, get("/api/orders/{id}", smallOrder))),
+                measure(as(large, get("/api/orders/{id}", largeOrder))));
+    }
+
+    @Test
+    void cancelDoesNotDependOnLineCount() throws Exception {
+        List<Long> products = catalog(uniqueName("Áo đồng phục"));
+        TestUser small = user("USER");
+        long smallOrder = placeOrder(small, products.subList(0, 1));
+        TestUser large = user("USER");
+        long largeOrder = placeOrder(large, products);
+
+        assertIndependentOfRows(
+                measure(as(small, post("/api/orders/{id}/cancel", smallOrder))),
+                measure(as(large, post("/api/orders/{id}/cancel", largeOrder))));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT MIN(stock_quantity) FROM products WHERE product_id IN (" + joined(products) + ")",
+                Integer.class)).isEqualTo(1_000);
+    }
+
+    @Test
+    void confirmDeliveredDoesNotDependOnLineCount() throws Exception {
+        List<Long> products = catalog(uniqueName("Bàn phím cơ"));
+        TestUser small = user("USER");
+        long smallOrder = placeOrder(small, products.subList(0, 1));
+        TestUser large = user("USER");
+        long largeOrder = placeOrder(large, products);
+        jdbcTemplate.update("UPDATE orders SET status = 'SHIPPED' WHERE order_id IN (?, ?)", smallOrder, largeOrder);
+
+        assertIndependentOfRows(
+                measure(as(small, post("/api/orders/{id}/delivered", smallOrder))),
+                measure(as(large, post("/api/orders/{id}/delivered", largeOrder))));
+    }
+
+    /**
+     * Real checkout (order, lines, payment, rollups), not measured
+     */
+    private long placeOrder(TestUser buyer, List<Long> productIds) throws Exception {
+        cart(buyer, productIds);
+        MvcResult result = mockMvc.perform(as(buyer, post("/api/orders/checkout"))).andReturn();
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.orderId")).longValue();
+    }
+
+    private void insertOrders(TestUser buyer, Long productId, int count) {
+        for (int i = 0; i < count; i++) {
+            Long orderId = jdbcTemplate.queryForObject(
+                    "INSERT INTO orders (user_id, order_cost, status) VALUES (?, 10000, 'DELIVERED') RETURNING order_id",
+                    Long.class, buyer.id());
+            jdbcTemplate.update("""
+                    INSERT INTO order_items (order_id, product_id, shop_id, quantity, price_snapshot)
+                    SELECT ?, product_id, shop_id, 1, price FROM products WHERE product_id = ?
+                    """, orderId, productId);
+        }
+    }
+
+    private static String joined(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+}
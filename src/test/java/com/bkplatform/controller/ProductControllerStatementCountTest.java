@@ -0,0 +1,88 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.service.RankingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class ProductControllerStatementCountTest extends StatementCountIntegrationTest {
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Test
+    void searchPageSizeDoesNotAddStatements() throws Exception {
+        String name = uniqueName("Bàn phím cơ");
+        catalog(name);
+
+        Measured one = measure(get("/api/products").param("search", name).param("size", "1"));
+        Measured many = measure(get("/api/products").param("search", name).param("size", Integer.toString(MANY)));
+        assertIndependentOfRows(one, many);
+    }
+
+    @Test
+    void searchWithFacetsAndImagesPageSizeDoesNotAddStatements() throws Exception {
+        String name = uniqueName("Tai nghe");
+        catalog(name);
+
+        Measured one = measure(get("/api/products").param("search", name).param("size", "1")
+                .param("facets", "true").param("images", "true"));
+        Measured many = measure(get("/api/products").param("search", name).param("size", Integer.toString(MANY))
+                .param("facets", "true").param("images", "true"));
+        assertIndependentOfRows(one, many);
+    }
+
+    @Test
+    void suggestRunsNoQueries() throws Exception {
+        assertWithinBudget(measure(get("/api/products/suggest").param("q", "ban")));
+    }
+
+    @Test
+    void topLimitDoesNotAddStatements() throws Exception {
+        List<Long> ids = catalog(uniqueName("Arduino Uno"));
+        ids.forEach(id -> jdbcTemplate.update("UPDATE products SET units_sold = 1000000 + ? WHERE product_id = ?", id, id));
+        rankingService.refresh();
+
+        Measured one = measure(get("/api/products/top").param("limit", "1"));
+        Measured many = measure(get("/api/products/top").param("limit", Integer.toString(MANY)));
+        assertIndependentOfRows(one, many);
+    }
+
+    @Test
+    void getById() throws Exception {
+        Long id = catalog(uniqueName("Raspberry Pi")).get(0);
+
+        assertWithinBudget(measure(get("/api/products/{id}", id)));
+    }
+
+    @Test
+    void createUpdateDeleteDoNotDependOnShopSize() throws Exception {
+        TestUser small = user("SHOP_OWNER");
+        Long smallProduct = products(shopOf(small), uniqueName("Đèn bàn"), 1).get(0);
+        TestUser large = user("SHOP_OWNER");
+        Long largeProduct = products(shopOf(large), uniqueName("Đèn bàn"), MANY).get(0);
+
+        String create = """
+                {"name": "Ổ cứng SSD mới", "price": 550000, "stockQuantity": 3}""";
+        assertIndependentOfRows(
+                measure(as(small, post("/api/products")).contentType(MediaType.APPLICATION_JSON).content(create)),
+                measure(as(large, post("/api/products")).contentType(MediaType.APPLICATION_JSON).content(create)));
+
+        String update = """
+                {"price": 450000, "stockQuantity": 7}""";
+        assertIndependentOfRows(
+                measure(as(small, put("/api/products/{id}", smallProduct)).contentType(MediaType.APPLICATION_JSON).content(update)),
+                measure(as(large, put("/api/products/{id}", largeProduct)).contentType(MediaType.APPLICATION_JSON).content(update)));
+
+        assertIndependentOfRows(
+                measure(as(small, delete("/api/products/{id}", smallProduct))),
+                measure(as(large, delete("/api/products/{id}", largeProduct))));
+    }
+}
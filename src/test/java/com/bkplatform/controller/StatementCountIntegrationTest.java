@@ -0,0 +1,232 @@
+package com.bkplatform.controller;
+
+import com.bkplatform.config.QueryCounter;
+import com.bkplatform.security.JwtUtil;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Boots the application against an embedded PostgreSQL with statement counting on (non-strict) and
+ * measures what each endpoint runs through the datasource-proxy counter, JWT user lookup and streamed
+ * bodies included. Endpoints that return or touch a variable number of rows are measured twice, with one
+ * row and with {@link #MANY} rows: the two counts must match (no statement per row) and stay within the
+ * endpoint's @StatementBudget.
+ *
+ * Every test seeds its own users, so the subclasses share one context and one database.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.query-count.enabled=true",
+        "app.query-count.strict=false",
+        "app.payments.callback-secret=test-callback-secret",
+        "app.payments.stub.latency-ms=0",
+        "management.health.mail.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.bkplatform=INFO",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.security=WARN"})
+abstract class StatementCountIntegrationTest {
+
+    /** Row count of the "many" side of every comparison */
+    static final int MANY = 20;
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Order confirmations are sent after commit; keep them off the network
+    @MockBean
+    private JavaMailSender mailSender;
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    log.warn("Failed to stop embedded PostgreSQL", e);
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void stubMail() {
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    /**
+     * Statements one request ran and the budget bound to its handler
+     */
+    record Measured(String endpoint, int status, int statements, int budget) {
+    }
+
+    /**
+     * Runs the request (and its async dispatch for streamed bodies) and reads the request's counter
+     */
+    protected Measured measure(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        if (result.getRequest().isAsyncStarted()) {
+            // Waits for the body, so statements run on the streaming thread are in the count
+            status = mockMvc.perform(asyncDispatch(result)).andReturn().getResponse().getStatus();
+        }
+
+        QueryCounter.Request counter = (QueryCounter.Request) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertThat(counter).as("statement counter of %s", result.getRequest().getRequestURI()).isNotNull();
+
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        Measured measured = new Measured(endpoint, status, counter.getStatements(), counter.getBudget());
+        log.info("{} -> {}: {} SQL statements (budget {})", endpoint, status, measured.statements(), measured.budget());
+        return measured;
+    }
+
+    /**
+     * Succeeded and stayed within the handler's @StatementBudget
+     */
+    protected static void assertWithinBudget(Measured measured) {
+        assertThat(measured.status()).as("status of %s", measured.endpoint()).isBetween(200, 299);
+        assertThat(measured.budget()).as("@StatementBudget on %s", measured.endpoint()).isGreaterThanOrEqualTo(0);
+        assertThat(measured.statements()).as("SQL statements of %s", measured.endpoint()).isLessThanOrEqualTo(measured.budget());
+    }
+
+    /**
+     * Same statement count with one row as with MANY, both within budget
+     */
+    protected static void assertIndependentOfRows(Measured one, Measured many) {
+        assertWithinBudget(one);
+        assertWithinBudget(many);
+        assertThat(many.statements())
+                .as("SQL statements of %s with %d rows vs 1 row", many.endpoint(), MANY)
+                .isEqualTo(one.statements());
+    }
+
+    // ---- seed data (plain JDBC, outside any counted request) ----
+
+    protected record TestUser(long id, String username) {
+    }
+
+    protected TestUser user(String role) {
+        String username = "stmt_" + role.toLowerCase() + "_" + SEQUENCE.incrementAndGet();
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, full_name, email, password, role) VALUES (?, ?, ?, ?, ?) RETURNING user_id",
+                Long.class, username, "Statement Count " + username, username + "@hust.edu.vn", "{noop}unused", role);
+        return new TestUser(id, username);
+    }
+
+    protected String bearer(TestUser user) {
+        return "Bearer " + jwtUtil.generateToken(user.username(), Map.of("userId", user.id()));
+    }
+
+    protected MockHttpServletRequestBuilder as(TestUser user, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, bearer(user));
+    }
+
+    /**
+     * A shop owner with a shop; returns the shop id
+     */
+    protected long shopOf(TestUser owner) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO shop (owner_id, name) VALUES (?, ?) RETURNING shop_id",
+                Long.class, owner.id(), "Shop of " + owner.username());
+    }
+
+    /**
+     * Products named "<name> n" with one image each (so listings load thumbnails)
+     */
+    protected List<Long> products(long shopId, String name, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO products (shop_id, name, price, description, stock_quantity) VALUES (?, ?, ?, ?, ?) RETURNING product_id",
+                    Long.class, shopId, name + " " + i, BigDecimal.valueOf(10_000L + i), "Statement count fixture", 1_000);
+            Long imageId = jdbcTemplate.queryForObject(
+                    "INSERT INTO product_images (product_id, image_url, image_type) VALUES (?, ?, 'image/jpeg') RETURNING image_id",
+                    Long.class, id, "/api/images/fixture-" + id + ".jpg");
+            jdbcTemplate.update("UPDATE products SET primary_image_id = ? WHERE product_id = ?", imageId, id);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    protected void cart(TestUser user, List<Long> productIds) {
+        Long cartId = jdbcTemplate.queryForObject(
+                "INSERT INTO cart (user_id) VALUES (?) ON CONFLICT (user_id) DO UPDATE SET user_id = EXCLUDED.user_id RETURNING cart_id",
+                Long.class, user.id());
+        productIds.forEach(productId -> jdbcTemplate.update(
+                "INSERT INTO cart_items (cart_id, product_id, quantity) VALUES (?, ?, 1)", cartId, productId));
+    }
+
+    /**
+     * A new buyer whose cart holds one of each product
+     */
+    protected TestUser buyerWith(List<Long> productIds) {
+        TestUser buyer = user("USER");
+        cart(buyer, productIds);
+        return buyer;
+    }
+
+    /**
+     * MANY products in stock, sold by a fresh shop
+     */
+    protected List<Long> catalog(String name) {
+        return products(shopOf(user("SHOP_OWNER")), name, MANY);
+    }
+
+    /**
+     * Name prefix no other fixture contains ("lô 1 -" is not a substring of "lô 12 -")
+     */
+    protected static String uniqueName(String prefix) {
+        return prefix + " lô " + SEQUENCE.incrementAndGet() + " -";
+    }
+}